@@ -0,0 +1,369 @@
+package bstmap;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A plain binary search tree, like BSTMap without balancing, whose nodes are
+ * slots in four parallel arrays instead of objects. Node i has its key in
+ * keys[i], its value in values[i] and its children at the indexes left[i] and
+ * right[i], with NIL for no child.
+ *
+ * A BSTMap node is an object header plus four references, a size and a color,
+ * about 40 bytes per entry with compressed references. Here an entry costs two
+ * array references and two ints, 16 bytes, plus the unused capacity left by
+ * doubling. The collector also traces four arrays instead of one object per
+ * entry: the int arrays hold no references at all.
+ *
+ * Removed slots go on a free list, threaded through left[], and are reused by
+ * later puts before the arrays grow. The arrays never shrink on their own;
+ * trimToSize() compacts them.
+ *
+ * A map could have an entry whose value equals null. Null keys are ignored.
+ */
+public class ArrayBSTMap<K extends Comparable<K>, V> implements Map61B<K, V> {
+    /** The index of no node */
+    private static final int NIL = -1;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] keys;
+    private Object[] values;
+    private int[] left;
+    private int[] right;
+    private int root = NIL;
+    private int size;
+    /** Slots [0, used) have been handed out; the rest have never held a node */
+    private int used;
+    /** The first removed slot, each linking to the next through left[], or NIL */
+    private int free = NIL;
+
+    /** Creates an empty map. */
+    public ArrayBSTMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** Creates an empty map with room for CAPACITY entries before it grows. */
+    public ArrayBSTMap(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+    }
+
+    @Override
+    public void clear() {
+        allocate(DEFAULT_CAPACITY);
+        root = NIL;
+        size = 0;
+        used = 0;
+        free = NIL;
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int node) {
+        return (K) keys[node];
+    }
+
+    /** Returns the slot holding KEY, or NIL if KEY is not in the map. */
+    private int find(K key) {
+        int node = root;
+        while (node != NIL) {
+            int cmp = key.compareTo(key(node));
+            if (cmp == 0) {
+                return node;
+            }
+            node = cmp < 0 ? left[node] : right[node];
+        }
+        return NIL;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && find(key) != NIL;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        int node = find(key);
+        return node == NIL ? null : (V) values[node];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            return;
+        }
+
+        // Walks down to the key or to the empty position where it belongs
+        int parent = NIL;
+        int node = root;
+        int cmp = 0;
+        while (node != NIL) {
+            cmp = key.compareTo(key(node));
+            if (cmp == 0) {
+                values[node] = value; // Update the existing value for the key
+                return;
+            }
+            parent = node;
+            node = cmp < 0 ? left[node] : right[node];
+        }
+
+        int created = newNode(key, value);
+        if (parent == NIL) {
+            root = created;
+        } else if (cmp < 0) {
+            left[parent] = created;
+        } else {
+            right[parent] = created;
+        }
+        size += 1;
+    }
+
+    /** Returns a leaf slot holding KEY and VALUE, from the free list if it has one. */
+    private int newNode(K key, V value) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = left[node];
+        } else {
+            if (used == keys.length) {
+                resize(keys.length * 2);
+            }
+            node = used++;
+        }
+        keys[node] = key;
+        values[node] = value;
+        left[node] = NIL;
+        right[node] = NIL;
+        return node;
+    }
+
+    private void resize(int capacity) {
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+
+        // Finds the node of KEY and its parent
+        int parent = NIL;
+        int node = root;
+        while (node != NIL) {
+            int cmp = key.compareTo(key(node));
+            if (cmp == 0) {
+                break;
+            }
+            parent = node;
+            node = cmp < 0 ? left[node] : right[node];
+        }
+        if (node == NIL) {
+            return null;
+        }
+        V value = (V) values[node];
+
+        // Node with two children: its successor, which has no left child, is unlinked instead
+        int target = node;
+        if (left[node] != NIL && right[node] != NIL) {
+            parent = node;
+            target = right[node];
+            while (left[target] != NIL) {
+                parent = target;
+                target = left[target];
+            }
+            keys[node] = keys[target];
+            values[node] = values[target];
+        }
+
+        int child = left[target] != NIL ? left[target] : right[target];
+        if (parent == NIL) {
+            root = child;
+        } else if (left[parent] == target) {
+            left[parent] = child;
+        } else {
+            right[parent] = child;
+        }
+        release(target);
+        size -= 1;
+        return value;
+    }
+
+    /** Puts NODE on the free list, dropping its key and value for the collector. */
+    private void release(int node) {
+        keys[node] = null;
+        values[node] = null;
+        right[node] = NIL;
+        left[node] = free;
+        free = node;
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        if (!containsKey(key) || !Objects.equals(get(key), value)) {
+            return null;
+        }
+        return remove(key);
+    }
+
+    /**
+     * Shrinks the arrays to exactly size() slots, moving the nodes into
+     * [0, size) in key order and relinking them as a minimum-height tree.
+     * Takes time linear in the size of the map.
+     */
+    public void trimToSize() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] order = new int[size];
+        int n = 0;
+        for (InOrder it = new InOrder(); it.hasNext();) {
+            order[n++] = it.nextNode();
+        }
+        allocate(Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            keys[i] = oldKeys[order[i]];
+            values[i] = oldValues[order[i]];
+        }
+        root = build(0, size - 1);
+        used = size;
+        free = NIL;
+    }
+
+    /** Links slots [lo, hi], which are in key order, into a minimum-height tree and returns its root. */
+    private int build(int lo, int hi) {
+        if (lo > hi) {
+            return NIL;
+        }
+        int mid = (lo + hi) >>> 1;
+        left[mid] = build(lo, mid - 1);
+        right[mid] = build(mid + 1, hi);
+        return mid;
+    }
+
+    /** Returns the number of array slots, used or not. */
+    int capacity() {
+        return keys.length;
+    }
+
+    /** Returns the number of nodes on the longest path from the root to a leaf. */
+    public int height() {
+        return height(root);
+    }
+
+    /** Returns the height of the subtree rooted at NODE, walking it level by level. */
+    private int height(int node) {
+        int height = 0;
+        int[] level = new int[] {node};
+        int count = node == NIL ? 0 : 1;
+        while (count > 0) {
+            height++;
+            int[] next = new int[2 * count];
+            int nextCount = 0;
+            for (int i = 0; i < count; i++) {
+                if (left[level[i]] != NIL) {
+                    next[nextCount++] = left[level[i]];
+                }
+                if (right[level[i]] != NIL) {
+                    next[nextCount++] = right[level[i]];
+                }
+            }
+            level = next;
+            count = nextCount;
+        }
+        return height;
+    }
+
+    /** Returns a live view of the keys in increasing order. */
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<K> iterator() {
+                return ArrayBSTMap.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Comparable && containsKey((K) o);
+            }
+        };
+    }
+
+    /** Returns an iterator over the keys in increasing order. */
+    @Override
+    public Iterator<K> iterator() {
+        return new InOrder();
+    }
+
+    /** In-order iterator that keeps the slots still to be visited on an int stack. */
+    private class InOrder implements Iterator<K> {
+        private int[] stack = new int[16];
+        private int top;
+
+        InOrder() {
+            pushLeftSpine(root);
+        }
+
+        /** Pushes NODE and every left descendant along its left spine. */
+        private void pushLeftSpine(int node) {
+            while (node != NIL) {
+                if (top == stack.length) {
+                    stack = Arrays.copyOf(stack, top * 2);
+                }
+                stack[top++] = node;
+                node = left[node];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return top > 0;
+        }
+
+        @Override
+        public K next() {
+            return key(nextNode());
+        }
+
+        /** Returns the slot of the next key. */
+        int nextNode() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int node = stack[--top];
+            pushLeftSpine(right[node]);
+            return node;
+        }
+    }
+}
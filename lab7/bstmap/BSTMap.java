@@ -1,18 +1,52 @@
 package bstmap;
 
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
-// TODO: May introduce mechanisms of red-black trees;
-// TODO: Try and implement all extra methods if you want to.
-/** A map could have an entry whose value equals null. */
+/**
+ * A map could have an entry whose value equals null.
+ * By default the tree is a plain BST, so keys inserted in sorted order turn
+ * it into a linked list. A balanced map is a left-leaning red-black tree
+ * instead, which keeps the height below 2 lg N for any insertion order and
+ * rebalances on removal too.
+ *
+ * Lookups, plain insertions and plain removals walk the tree in a loop, and
+ * traversals keep their own stack, so a degenerate tree of any depth works
+ * without overflowing the call stack. Only the red-black paths recurse, and
+ * their depth is bounded by the height of a balanced tree.
+ *
+ * Every node counts the nodes in its subtree, which gives rank, select,
+ * countRange and percentile in time proportional to the height. headMap,
+ * tailMap, subMap and keySet are views backed by the tree: nothing is copied,
+ * and iterating k keys of a range costs O(height + k).
+ */
 public class BSTMap<K extends Comparable<K>, V> implements Map61B<K,V> {
     Node<K,V> root;
     int size;
+    /** Whether the tree is kept as a left-leaning red-black tree */
+    private final boolean balanced;
 
     BSTMap() {
+        this(false);
+    }
+
+    /** Creates an empty map that is a left-leaning red-black tree if BALANCED. */
+    BSTMap(boolean balanced) {
+        this.balanced = balanced;
         size = 0;
     }
 
+    /** Returns true if the map is kept as a left-leaning red-black tree. */
+    public boolean isBalanced() {
+        return balanced;
+    }
+
     /** Returns true if there is no entry in the map. */
     public boolean isEmpty() {
         return size == 0;
@@ -29,43 +63,30 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K,V> {
 
     @Override
     public boolean containsKey(K key) {
-        return containsKeyHelper(key,root);
-    }
-
-    private boolean containsKeyHelper(K key,Node<K,V> node) {
-        if (node == null) {
-            return false;
-        }
-
-        int cmp = key.compareTo(node.getKey());
-        if (cmp == 0) {
-            return true;
-        } else if (cmp < 0) {
-            return containsKeyHelper(key,node.getLeft());
-        } else {
-            return containsKeyHelper(key,node.getRight());
-        }
+        return findNode(key) != null;
     }
 
     /** Returns value with given key if the entry exist. */
     @Override
     public V get(K key) {
-       return helpGet(key,root);
+        Node<K, V> node = findNode(key);
+        return node == null ? null : node.getValue();
     }
 
-    private V helpGet(K key,Node<K,V> node) {
-        if (node == null) {
+    /** Returns the node holding KEY, or null if there is none. */
+    private Node<K, V> findNode(K key) {
+        if (key == null) {
             return null;
         }
-
-        int cmp = key.compareTo(node.getKey());
-        if (cmp == 0) {
-            return node.getValue();
-        } else if (cmp < 0) {
-            return helpGet(key,node.getLeft());
-        } else {
-            return helpGet(key,node.getRight());
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.getKey());
+            if (cmp == 0) {
+                return node;
+            }
+            node = cmp < 0 ? node.getLeft() : node.getRight();
         }
+        return null;
     }
 
     @Override
@@ -78,13 +99,46 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K,V> {
         if (key == null) {
             return;
         }
-        root = helpPut(key, value, root);
+        if (balanced) {
+            root = helpPut(key, value, root);
+            root.setRed(false); // The root is always black
+            return;
+        }
+
+        Node<K, V> existing = findNode(key);
+        if (existing != null) {
+            existing.setValue(value); // Update the existing value for the key
+            return;
+        }
+
+        // Walks down to the empty position, counting the new node in every subtree on the way
+        Node<K, V> parent = null;
+        Node<K, V> node = root;
+        int cmp = 0;
+        while (node != null) {
+            node.setSize(node.getSize() + 1);
+            cmp = key.compareTo(node.getKey());
+            parent = node;
+            node = cmp < 0 ? node.getLeft() : node.getRight();
+        }
+        Node<K, V> created = new Node<>(key, value); // Create new node at the empty position
+        if (parent == null) {
+            root = created;
+        } else if (cmp < 0) {
+            parent.setLeft(created);
+        } else {
+            parent.setRight(created);
+        }
         size += 1;
     }
 
+    /** Inserts into the red-black subtree rooted at NODE, rebalancing on the way back up. */
     private Node<K, V> helpPut(K key, V value, Node<K, V> node) {
         if (node == null) {
-            return new Node<>(key, value); // Create new node if the position is empty
+            size += 1; // Only a new key grows the map
+            Node<K, V> created = new Node<>(key, value); // Create new node if the position is empty
+            created.setRed(true); // New nodes join their parent with a red link
+            return created;
         }
 
         int cmp = key.compareTo(node.getKey());
@@ -96,62 +150,227 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K,V> {
         } else {
             node.setLeft(helpPut(key, value, node.getLeft())); // Recursively add to the left
         }
-        return node; // Return the unchanged (or modified) node
+        return balance(node); // Return the rebalanced node
+    }
+
+    /* ---------------------- Red-black tree helpers ---------------------- */
+
+    private static boolean isRed(Node<?, ?> node) {
+        return node != null && node.isRed();
+    }
+
+    /** Returns the number of nodes in the subtree rooted at NODE. */
+    private static int sizeOf(Node<?, ?> node) {
+        return node == null ? 0 : node.getSize();
+    }
+
+    /** Recounts the nodes below NODE from the counts of its children. */
+    private static void resize(Node<?, ?> node) {
+        node.setSize(1 + sizeOf(node.getLeft()) + sizeOf(node.getRight()));
+    }
+
+    /** Turns the right-leaning red link below NODE to the left and returns the new subtree root. */
+    private Node<K, V> rotateLeft(Node<K, V> node) {
+        Node<K, V> x = node.getRight();
+        node.setRight(x.getLeft());
+        x.setLeft(node);
+        x.setRed(node.isRed());
+        node.setRed(true);
+        x.setSize(node.getSize());
+        resize(node);
+        return x;
+    }
+
+    /** Turns the left-leaning red link below NODE to the right and returns the new subtree root. */
+    private Node<K, V> rotateRight(Node<K, V> node) {
+        Node<K, V> x = node.getLeft();
+        node.setLeft(x.getRight());
+        x.setRight(node);
+        x.setRed(node.isRed());
+        node.setRed(true);
+        x.setSize(node.getSize());
+        resize(node);
+        return x;
+    }
+
+    /** Flips the colors of NODE and both of its children. */
+    private void flipColors(Node<K, V> node) {
+        node.setRed(!node.isRed());
+        node.getLeft().setRed(!node.getLeft().isRed());
+        node.getRight().setRed(!node.getRight().isRed());
     }
-    // TODO: implement this method
+
+    /** Restores the subtree count and left-leaning red-black invariants at NODE on the way back up. */
+    private Node<K, V> balance(Node<K, V> node) {
+        resize(node);
+        if (isRed(node.getRight()) && !isRed(node.getLeft())) {
+            node = rotateLeft(node);
+        }
+        if (isRed(node.getLeft()) && isRed(node.getLeft().getLeft())) {
+            node = rotateRight(node);
+        }
+        if (isRed(node.getLeft()) && isRed(node.getRight())) {
+            flipColors(node);
+        }
+        return node;
+    }
+
+    /** Makes NODE's left child or one of its children red, assuming NODE is red and both children black. */
+    private Node<K, V> moveRedLeft(Node<K, V> node) {
+        flipColors(node);
+        if (isRed(node.getRight().getLeft())) {
+            node.setRight(rotateRight(node.getRight()));
+            node = rotateLeft(node);
+            flipColors(node);
+        }
+        return node;
+    }
+
+    /** Makes NODE's right child or one of its children red, assuming NODE is red and both children black. */
+    private Node<K, V> moveRedRight(Node<K, V> node) {
+        flipColors(node);
+        if (isRed(node.getLeft().getLeft())) {
+            node = rotateRight(node);
+            flipColors(node);
+        }
+        return node;
+    }
+
+    /** Returns the number of nodes on the longest path from the root to a leaf. */
+    public int height() {
+        // Counts the levels of a breadth-first traversal
+        int height = 0;
+        Deque<Node<K, V>> level = new ArrayDeque<>();
+        if (root != null) {
+            level.add(root);
+        }
+        while (!level.isEmpty()) {
+            height++;
+            for (int i = level.size(); i > 0; i--) {
+                Node<K, V> node = level.remove();
+                if (node.getLeft() != null) {
+                    level.add(node.getLeft());
+                }
+                if (node.getRight() != null) {
+                    level.add(node.getRight());
+                }
+            }
+        }
+        return height;
+    }
+
+    /** Returns a live view of the keys in increasing order. */
     @Override
     public Set<K> keySet() {
-        throw new UnsupportedOperationException();
+        return new SubMap(null, null).keySet();
     }
 
     @Override
     public V remove(K key) {
-        if (key == null) {
-            return null; // Return null for null keys
+        Node<K, V> found = findNode(key);
+        if (found == null) {
+            return null; // Return null for null or absent keys
         }
         // Holds the value with variable value
-        V value = get(key);
+        V value = found.getValue();
         // Update the root after removal
-        root = removeHelper(key, root);
-
+        if (balanced) {
+            if (!isRed(root.getLeft()) && !isRed(root.getRight())) {
+                root.setRed(true); // Lets the root lend a red link on the way down
+            }
+            root = removeBalanced(key, root);
+            if (root != null) {
+                root.setRed(false);
+            }
+        } else {
+            removeNode(found);
+        }
+        size--;
         return value;
     }
 
-    private Node<K, V> removeHelper(K key, Node<K, V> node) {
-        if (node == null) {
-            return null; // Key not found
+    /** Unlinks NODE from the plain BST. */
+    private void removeNode(Node<K, V> node) {
+        // Case 2: Node with two children
+        // Its successor (smallest in the right subtree) has no left child and is unlinked instead
+        Node<K, V> target = node;
+        if (node.getLeft() != null && node.getRight() != null) {
+            target = findSuccessor(node);
         }
 
-        int cmp = key.compareTo(node.getKey());
+        // Walks down to the target, which leaves every subtree on the way one node smaller
+        Node<K, V> parent = null;
+        Node<K, V> current = root;
+        while (current != target) {
+            current.setSize(current.getSize() - 1);
+            parent = current;
+            current = target.getKey().compareTo(current.getKey()) < 0
+                    ? current.getLeft() : current.getRight();
+        }
+        if (target != node) {
+            node.setKey(target.getKey()); // Replace with successor's key
+            node.setValue(target.getValue()); // Replace with successor's value
+        }
 
-        if (cmp < 0) {
-            node.setLeft(removeHelper(key, node.getLeft())); // Traverse left
-        } else if (cmp > 0) {
-            node.setRight(removeHelper(key, node.getRight())); // Traverse right
+        // Case 1: Node with only one child or no child
+        Node<K, V> child = target.getLeft() != null ? target.getLeft() : target.getRight();
+        if (parent == null) {
+            root = child;
+        } else if (parent.getLeft() == target) {
+            parent.setLeft(child);
         } else {
-            // Node found
+            parent.setRight(child);
+        }
+    }
 
-            // Case 1: Node with only one child or no child
-            if (node.getLeft() == null) {
-                size--;
-                return node.getRight(); // Link to right child
-            } else if (node.getRight() == null) {
-                size--;
-                return node.getLeft(); // Link to left child
+    /**
+     * Removes KEY, which must be present, from the red-black subtree rooted at
+     * NODE. On the way down a red link is pushed along the search path, so the
+     * node finally removed is never a black leaf; balance() cleans up on the
+     * way back up.
+     */
+    private Node<K, V> removeBalanced(K key, Node<K, V> node) {
+        if (key.compareTo(node.getKey()) < 0) {
+            if (!isRed(node.getLeft()) && !isRed(node.getLeft().getLeft())) {
+                node = moveRedLeft(node);
+            }
+            node.setLeft(removeBalanced(key, node.getLeft()));
+        } else {
+            if (isRed(node.getLeft())) {
+                node = rotateRight(node);
+            }
+            if (key.compareTo(node.getKey()) == 0 && node.getRight() == null) {
+                return null; // A leaf that is no longer black
             }
+            if (!isRed(node.getRight()) && !isRed(node.getRight().getLeft())) {
+                node = moveRedRight(node);
+            }
+            if (key.compareTo(node.getKey()) == 0) {
+                Node<K, V> successor = findSuccessor(node);
+                node.setKey(successor.getKey()); // Replace with successor's key
+                node.setValue(successor.getValue()); // Replace with successor's value
+                node.setRight(removeMinBalanced(node.getRight())); // Remove successor
+            } else {
+                node.setRight(removeBalanced(key, node.getRight()));
+            }
+        }
+        return balance(node);
+    }
 
-            // Case 2: Node with two children
-            // Get the successor (smallest in the right subtree)
-            Node<K, V> successor = findSuccessor(node);
-            node.setKey(successor.getKey()); // Replace with successor's key
-            node.setValue(successor.getValue()); // Replace with successor's value
-            node.setRight(removeHelper(successor.getKey(), node.getRight())); // Remove successor
+    /** Removes the smallest key of the red-black subtree rooted at NODE. */
+    private Node<K, V> removeMinBalanced(Node<K, V> node) {
+        if (node.getLeft() == null) {
+            return null;
+        }
+        if (!isRed(node.getLeft()) && !isRed(node.getLeft().getLeft())) {
+            node = moveRedLeft(node);
         }
-        return node; // Return the updated node
+        node.setLeft(removeMinBalanced(node.getLeft()));
+        return balance(node);
     }
 
     /** Finds the node that has the least value and is greater than the given node.
-     *  As the helper method of removeHelper,the given node is guaranteed to have two children.
+     *  As the helper method of removal,the given node is guaranteed to have two children.
      *  No need to check if the given node has child.*/
     private Node<K, V> findSuccessor(Node<K, V> node) {
         Node<K,V> startingNode = node.getRight();
@@ -161,78 +380,479 @@ public class BSTMap<K extends Comparable<K>, V> implements Map61B<K,V> {
         return startingNode;
     }
 
-    // TODO: implement this method
     @Override
     public V remove(K key, V value) {
-        throw new UnsupportedOperationException();
+        Node<K, V> found = findNode(key);
+        if (found == null || !Objects.equals(found.getValue(), value)) {
+            return null;
+        }
+        remove(key);
+        return value;
     }
 
-    @Override
-    public Iterator<K> iterator() {
-        throw new UnsupportedOperationException();
+    /* ---------------------- Bulk construction ---------------------- */
+
+    /**
+     * Returns a plain BSTMap of the entries KEYS[i] -> VALUES[i], built in one
+     * linear pass instead of N puts. The keys must be strictly increasing and
+     * there must be as many values as keys. The tree has the minimum height,
+     * ceil(lg(N + 1)).
+     */
+    public static <K extends Comparable<K>, V> BSTMap<K, V> fromSorted(Iterator<K> keys,
+                                                                        Iterator<V> values) {
+        return fromSorted(keys, values, false);
     }
 
-    public void printInOrder() {
-        printInOrderHelper(root);
+    /**
+     * Same as fromSorted(KEYS, VALUES), but the map is a left-leaning
+     * red-black tree if BALANCED, and keeps balancing on later puts and removes.
+     */
+    public static <K extends Comparable<K>, V> BSTMap<K, V> fromSorted(Iterator<K> keys,
+                                                                        Iterator<V> values,
+                                                                        boolean balanced) {
+        List<K> keyList = new ArrayList<>();
+        List<V> valueList = new ArrayList<>();
+        K previous = null;
+        while (keys.hasNext()) {
+            K key = keys.next();
+            if (key == null) {
+                throw new IllegalArgumentException("null key");
+            }
+            if (previous != null && previous.compareTo(key) >= 0) {
+                throw new IllegalArgumentException("keys are not strictly increasing: "
+                        + previous + ", " + key);
+            }
+            if (!values.hasNext()) {
+                throw new IllegalArgumentException("fewer values than keys");
+            }
+            keyList.add(key);
+            valueList.add(values.next());
+            previous = key;
+        }
+        if (values.hasNext()) {
+            throw new IllegalArgumentException("more values than keys");
+        }
+        BSTMap<K, V> map = new BSTMap<>(balanced);
+        map.build(keyList, valueList);
+        return map;
     }
 
-    private void printInOrderHelper(Node<K, V> node) {
-        if (node == null) {
-            return; // Base case: if the node is null, return
+    /**
+     * Adds every entry of OTHER to this map in time linear in the sizes of
+     * both maps: the two in-order sequences are merged and the tree is
+     * rebuilt from the result. Where both maps have a key, OTHER's value
+     * wins, as it would with a put. OTHER is left unchanged.
+     */
+    public void merge(BSTMap<K, V> other) {
+        if (other == this || other.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(size + other.size);
+        List<V> values = new ArrayList<>(size + other.size);
+        RangeIterator mine = new RangeIterator(null, null);
+        RangeIterator theirs = other.new RangeIterator(null, null);
+        Node<K, V> a = mine.hasNext() ? mine.nextNode() : null;
+        Node<K, V> b = theirs.nextNode();
+        while (a != null || b != null) {
+            int cmp = a == null ? 1 : b == null ? -1 : a.getKey().compareTo(b.getKey());
+            Node<K, V> next = cmp < 0 ? a : b;
+            keys.add(next.getKey());
+            values.add(next.getValue());
+            if (cmp <= 0) {
+                a = mine.hasNext() ? mine.nextNode() : null;
+            }
+            if (cmp >= 0) {
+                b = theirs.hasNext() ? theirs.nextNode() : null;
+            }
         }
+        build(keys, values);
+    }
 
-        printInOrderHelper(node.getLeft());  // Traverse left subtree
-        System.out.print(node.getKey() + " "); // Visit the current node (printing the key)
-        printInOrderHelper(node.getRight()); // Traverse right subtree
+    /** Replaces the tree with the entries KEYS[i] -> VALUES[i], KEYS strictly increasing. */
+    private void build(List<K> keys, List<V> values) {
+        int n = keys.size();
+        if (balanced) {
+            // A 2-3 tree of height floor(lg(N + 1)) has room for N keys
+            int height = 31 - Integer.numberOfLeadingZeros(n + 1);
+            root = buildTwoThree(keys, values, 0, n, height);
+        } else {
+            root = buildPerfect(keys, values, 0, n);
+        }
+        size = n;
+    }
+
+    /** Returns a tree of minimum height holding entries LO .. HI - 1, rooted at the middle one. */
+    private Node<K, V> buildPerfect(List<K> keys, List<V> values, int lo, int hi) {
+        if (lo >= hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        Node<K, V> node = new Node<>(keys.get(mid), values.get(mid));
+        node.setLeft(buildPerfect(keys, values, lo, mid));
+        node.setRight(buildPerfect(keys, values, mid + 1, hi));
+        node.setSize(hi - lo);
+        return node;
+    }
+
+    /**
+     * Returns a left-leaning red-black tree holding entries LO .. HI - 1 as a
+     * 2-3 tree of the given HEIGHT, which has room for between 2^HEIGHT - 1
+     * and 3^HEIGHT - 1 keys. The keys are spread evenly over the children, and
+     * a node is a 3-node (a red left child under a black node) only when two
+     * subtrees can't hold the rest.
+     */
+    private Node<K, V> buildTwoThree(List<K> keys, List<V> values, int lo, int hi, int height) {
+        if (height == 0) {
+            return null;
+        }
+        int n = hi - lo;
+        long childCapacity = (long) Math.pow(3, height - 1) - 1;
+        if (n - 1 <= 2 * childCapacity) {
+            int mid = lo + n / 2;
+            Node<K, V> node = new Node<>(keys.get(mid), values.get(mid));
+            node.setLeft(buildTwoThree(keys, values, lo, mid, height - 1));
+            node.setRight(buildTwoThree(keys, values, mid + 1, hi, height - 1));
+            resize(node);
+            return node;
+        }
+        int third = (n - 2) / 3;
+        int extra = (n - 2) % 3;
+        int a = lo + third + (extra > 0 ? 1 : 0);
+        int b = a + 1 + third + (extra > 1 ? 1 : 0);
+        Node<K, V> left = new Node<>(keys.get(a), values.get(a));
+        left.setLeft(buildTwoThree(keys, values, lo, a, height - 1));
+        left.setRight(buildTwoThree(keys, values, a + 1, b, height - 1));
+        left.setRed(true);
+        resize(left);
+        Node<K, V> node = new Node<>(keys.get(b), values.get(b));
+        node.setLeft(left);
+        node.setRight(buildTwoThree(keys, values, b + 1, hi, height - 1));
+        resize(node);
+        return node;
     }
-}
 
+    /* ---------------------- Ordered operations ---------------------- */
+
+    /** Returns the greatest key less than or equal to KEY, or null if there is none. */
+    public K floorKey(K key) {
+        K floor = null;
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.getKey());
+            if (cmp == 0) {
+                return node.getKey();
+            } else if (cmp < 0) {
+                node = node.getLeft();
+            } else {
+                floor = node.getKey(); // A candidate; a closer one may be to the right
+                node = node.getRight();
+            }
+        }
+        return floor;
+    }
 
-/** Each key is absolutely unique.You cannot have two identical keys in one tree. */
-class Node<K extends Comparable<K>, V> {
-    private K key;
-    private V value;
-    private Node<K, V> left;
-    private Node<K, V> right;
+    /** Returns the least key greater than or equal to KEY, or null if there is none. */
+    public K ceilingKey(K key) {
+        K ceiling = null;
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.getKey());
+            if (cmp == 0) {
+                return node.getKey();
+            } else if (cmp > 0) {
+                node = node.getRight();
+            } else {
+                ceiling = node.getKey(); // A candidate; a closer one may be to the left
+                node = node.getLeft();
+            }
+        }
+        return ceiling;
+    }
+
+    /** Returns the number of keys strictly less than KEY, which need not be in the map. */
+    public int rank(K key) {
+        int rank = 0;
+        Node<K, V> node = root;
+        while (node != null) {
+            int cmp = key.compareTo(node.getKey());
+            if (cmp < 0) {
+                node = node.getLeft();
+            } else if (cmp > 0) {
+                rank += 1 + sizeOf(node.getLeft());
+                node = node.getRight();
+            } else {
+                return rank + sizeOf(node.getLeft());
+            }
+        }
+        return rank;
+    }
 
-    Node(K key, V value) {
-        this.key = key;
-        this.value = value;
+    /** Returns the key of the given RANK: select(0) is the smallest key. */
+    public K select(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IllegalArgumentException("rank " + rank + " is not in [0, " + size + ")");
+        }
+        Node<K, V> node = root;
+        while (true) {
+            int leftSize = sizeOf(node.getLeft());
+            if (rank < leftSize) {
+                node = node.getLeft();
+            } else if (rank > leftSize) {
+                rank -= leftSize + 1;
+                node = node.getRight();
+            } else {
+                return node.getKey();
+            }
+        }
     }
 
-    public K getKey() {
-        return key;
+    /**
+     * Returns the number of keys in [LO, HI], from two ranks, without
+     * visiting them. LO and HI need not be in the map.
+     */
+    public int countRange(K lo, K hi) {
+        if (lo.compareTo(hi) > 0) {
+            return 0;
+        }
+        int count = rank(hi) - rank(lo);
+        return containsKey(hi) ? count + 1 : count;
     }
 
-    public V getValue() {
-        return value;
+    /**
+     * Returns the key at percentile P, for P in [0, 100], by the nearest-rank
+     * method: the smallest key that is at least P percent of the keys. P of 0
+     * gives the smallest key and P of 100 the largest.
+     */
+    public K percentile(double p) {
+        if (!(p >= 0 && p <= 100)) {
+            throw new IllegalArgumentException("percentile " + p + " is not in [0, 100]");
+        }
+        if (size == 0) {
+            throw new IllegalArgumentException("percentile of an empty map");
+        }
+        int rank = (int) Math.ceil(p / 100 * size) - 1;
+        return select(Math.max(rank, 0));
     }
 
-    public void setValue(V value) {
-        this.value = value;
+    /** Returns a view of the entries whose keys are less than TOKEY. */
+    public Map61B<K, V> headMap(K toKey) {
+        return new SubMap(null, Objects.requireNonNull(toKey));
     }
 
-    public Node<K, V> getLeft() {
-        return left;
+    /** Returns a view of the entries whose keys are greater than or equal to FROMKEY. */
+    public Map61B<K, V> tailMap(K fromKey) {
+        return new SubMap(Objects.requireNonNull(fromKey), null);
     }
 
-    public Node<K, V> getRight() {
-        return right;
+    /** Returns a view of the entries whose keys are in [FROMKEY, TOKEY). */
+    public Map61B<K, V> subMap(K fromKey, K toKey) {
+        if (fromKey.compareTo(toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return new SubMap(fromKey, toKey);
     }
 
-    public void setLeft(Node<K,V> node) {
-        left = node;
+    /**
+     * The entries of this map whose keys are in [lo, hi), where a null bound
+     * means unbounded. Reads and writes go straight to the tree, so the view
+     * always reflects the current map. Putting a key outside the range throws
+     * an IllegalArgumentException, as java.util.TreeMap's views do.
+     */
+    private class SubMap implements Map61B<K, V> {
+        private final K lo;
+        private final K hi;
+
+        SubMap(K lo, K hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        private boolean inRange(K key) {
+            return (lo == null || key.compareTo(lo) >= 0) && (hi == null || key.compareTo(hi) < 0);
+        }
+
+        @Override
+        public void clear() {
+            K key = lo == null ? (size == 0 ? null : select(0)) : ceilingKey(lo);
+            while (key != null && inRange(key)) {
+                BSTMap.this.remove(key);
+                key = ceilingKey(key);
+            }
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            return key != null && inRange(key) && BSTMap.this.containsKey(key);
+        }
+
+        @Override
+        public V get(K key) {
+            return key != null && inRange(key) ? BSTMap.this.get(key) : null;
+        }
+
+        /** Counts the keys in range from two ranks, without visiting them. */
+        @Override
+        public int size() {
+            int below = lo == null ? 0 : rank(lo);
+            int belowEnd = hi == null ? size : rank(hi);
+            return belowEnd - below;
+        }
+
+        @Override
+        public void put(K key, V value) {
+            if (key == null) {
+                return;
+            }
+            if (!inRange(key)) {
+                throw new IllegalArgumentException("key out of range: " + key);
+            }
+            BSTMap.this.put(key, value);
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<K> iterator() {
+                    return SubMap.this.iterator();
+                }
+
+                @Override
+                public int size() {
+                    return SubMap.this.size();
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public boolean contains(Object o) {
+                    try {
+                        return containsKey((K) o);
+                    } catch (ClassCastException e) {
+                        return false; // a key that compareTo can't handle
+                    }
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public boolean remove(Object o) {
+                    if (!contains(o)) {
+                        return false;
+                    }
+                    SubMap.this.remove((K) o);
+                    return true;
+                }
+
+                @Override
+                public void clear() {
+                    SubMap.this.clear();
+                }
+            };
+        }
+
+        @Override
+        public V remove(K key) {
+            return key != null && inRange(key) ? BSTMap.this.remove(key) : null;
+        }
+
+        @Override
+        public V remove(K key, V value) {
+            return key != null && inRange(key) ? BSTMap.this.remove(key, value) : null;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new RangeIterator(lo, hi);
+        }
     }
 
-    public void setRight(Node<K,V> node) {
-        right = node;
+    /** Returns an iterator over the keys in increasing order. */
+    @Override
+    public Iterator<K> iterator() {
+        return new RangeIterator(null, null);
     }
 
-    public boolean isLeaf() {
-        return getLeft() == null && getRight() == null;
+    /**
+     * In-order iterator over the keys in [lo, hi), a null bound meaning
+     * unbounded. It starts by descending to the first key in range, so
+     * subtrees entirely below lo are never visited.
+     *
+     * remove() removes the last key returned from the map. A removal can
+     * restructure the tree and move keys between nodes, so the stack is then
+     * rebuilt by descending to the first key after the removed one.
+     */
+    private class RangeIterator implements Iterator<K> {
+        // Holds the nodes whose key and right subtree are still to be visited
+        private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+        private final K hi;
+        /** Key returned by the last next(), or null if it was removed or there is none */
+        private K lastReturned;
+
+        RangeIterator(K lo, K hi) {
+            this.hi = hi;
+            seek(lo, true);
+        }
+
+        /**
+         * Refills the stack with the path to the first key above FROM, or at
+         * FROM too if INCLUSIVE. A null FROM means the smallest key.
+         */
+        private void seek(K from, boolean inclusive) {
+            stack.clear();
+            Node<K, V> node = root;
+            while (node != null) {
+                int cmp = from == null ? 1 : node.getKey().compareTo(from);
+                if (cmp > 0 || (inclusive && cmp == 0)) {
+                    stack.push(node);
+                    node = node.getLeft();
+                } else {
+                    node = node.getRight(); // Everything on the left is below from too
+                }
+            }
+        }
+
+        /** Pushes NODE and every left descendant along its left spine. */
+        private void pushLeftSpine(Node<K, V> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.getLeft();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty() && (hi == null || stack.peek().getKey().compareTo(hi) < 0);
+        }
+
+        @Override
+        public K next() {
+            return nextNode().getKey();
+        }
+
+        /** Returns the node of the next key. */
+        Node<K, V> nextNode() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node<K, V> node = stack.pop();
+            pushLeftSpine(node.getRight());
+            lastReturned = node.getKey();
+            return node;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            BSTMap.this.remove(lastReturned);
+            seek(lastReturned, false);
+            lastReturned = null;
+        }
     }
 
-    public void setKey(K key) {
-        this.key = key;
+    public void printInOrder() {
+        for (K key : this) {
+            System.out.print(key + " "); // Visit the current node (printing the key)
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,503 @@
+package bstmap;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A B+ tree map. Every page keeps its keys in one array, so a lookup does a
+ * binary search over adjacent keys in each page instead of following a pointer
+ * per comparison. Entries only live in the leaves, and the leaves are linked
+ * left to right, so ordered scans walk arrays and never climb back up the tree.
+ * The tree is at most log_{order/2}(N) pages deep.
+ *
+ * Internal pages hold separator keys: every key in children[i + 1] is greater
+ * than or equal to keys[i], and every key in children[i] is less. Separators
+ * route searches and may outlive the keys they were copied from. Pages hold
+ * between order / 2 and order keys, except for the root. Removal borrows from
+ * a sibling or merges with one to keep it that way.
+ *
+ * A map could have an entry whose value equals null. Null keys are ignored.
+ */
+public class BTreeMap<K extends Comparable<K>, V> implements Map61B<K, V> {
+    /** Default maximum number of keys per page */
+    static final int DEFAULT_ORDER = 64;
+
+    /** Maximum number of keys per page */
+    private final int maxKeys;
+    /** Minimum number of keys per page other than the root */
+    private final int minKeys;
+    private Page root;
+    /** Leftmost leaf, where every full scan starts */
+    private Leaf first;
+    private int size;
+    /** Separator for the page returned by the last insert that split */
+    private Object splitKey;
+
+    /** A page of the tree. keys[0 .. count) are in increasing order. */
+    private abstract static class Page {
+        final Object[] keys;
+        int count;
+
+        Page(int capacity) {
+            keys = new Object[capacity];
+        }
+    }
+
+    /** A leaf page: values[i] belongs to keys[i]. */
+    private static final class Leaf extends Page {
+        final Object[] values;
+        Leaf next;
+
+        Leaf(int capacity) {
+            super(capacity);
+            values = new Object[capacity];
+        }
+    }
+
+    /** An internal page with count + 1 children. */
+    private static final class Internal extends Page {
+        final Page[] children;
+
+        Internal(int capacity) {
+            super(capacity);
+            children = new Page[capacity + 1];
+        }
+    }
+
+    /** Creates an empty map with pages of up to DEFAULT_ORDER keys. */
+    public BTreeMap() {
+        this(DEFAULT_ORDER);
+    }
+
+    /**
+     * Creates an empty map with pages of up to ORDER keys. Larger pages make
+     * the tree shallower and scans faster, at the cost of shifting more keys
+     * on each insert and remove.
+     *
+     * @param order maximum number of keys per page, at least 3
+     */
+    public BTreeMap(int order) {
+        if (order < 3) {
+            throw new IllegalArgumentException("order must be at least 3: " + order);
+        }
+        maxKeys = order;
+        minKeys = order / 2;
+        clear();
+    }
+
+    private Leaf newLeaf() {
+        // One spare slot lets a page overflow by a key before it is split
+        return new Leaf(maxKeys + 1);
+    }
+
+    private Internal newInternal() {
+        return new Internal(maxKeys + 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(Page page, int i) {
+        return (K) page.keys[i];
+    }
+
+    /**
+     * Returns the index of KEY in PAGE, or (-(insertion point) - 1) if it is
+     * absent, like Arrays.binarySearch.
+     */
+    private int search(Page page, K key) {
+        int lo = 0;
+        int hi = page.count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = key.compareTo(keyAt(page, mid));
+            if (cmp > 0) {
+                lo = mid + 1;
+            } else if (cmp < 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /** Returns the index of the child of PAGE whose range contains KEY. */
+    private int childIndex(Internal page, K key) {
+        int i = search(page, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /** Returns the leaf whose range contains KEY. */
+    private Leaf findLeaf(K key) {
+        Page page = root;
+        while (page instanceof Internal) {
+            Internal internal = (Internal) page;
+            page = internal.children[childIndex(internal, key)];
+        }
+        return (Leaf) page;
+    }
+
+    @Override
+    public void clear() {
+        first = newLeaf();
+        root = first;
+        size = 0;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && search(findLeaf(key), key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        return i >= 0 ? (V) leaf.values[i] : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Returns the number of pages on the path from the root to any leaf. */
+    public int height() {
+        int height = 1;
+        for (Page page = root; page instanceof Internal; page = ((Internal) page).children[0]) {
+            height++;
+        }
+        return height;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            return;
+        }
+        Page right = insert(root, key, value);
+        if (right != null) {
+            // The root split, so the tree grows a level at the top
+            Internal newRoot = newInternal();
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = right;
+            newRoot.count = 1;
+            root = newRoot;
+        }
+    }
+
+    /**
+     * Puts KEY and VALUE into the subtree rooted at PAGE. If PAGE overflows it
+     * is split in two: the new right half is returned and its separator left
+     * in splitKey. Returns null otherwise.
+     */
+    private Page insert(Page page, K key, V value) {
+        int i = search(page, key);
+        if (page instanceof Leaf) {
+            Leaf leaf = (Leaf) page;
+            if (i >= 0) {
+                leaf.values[i] = value; // Update the existing value for the key
+                return null;
+            }
+            i = -i - 1;
+            int moved = leaf.count - i;
+            System.arraycopy(leaf.keys, i, leaf.keys, i + 1, moved);
+            System.arraycopy(leaf.values, i, leaf.values, i + 1, moved);
+            leaf.keys[i] = key;
+            leaf.values[i] = value;
+            leaf.count++;
+            size++;
+            return leaf.count > maxKeys ? splitLeaf(leaf) : null;
+        }
+
+        Internal internal = (Internal) page;
+        int child = i >= 0 ? i + 1 : -i - 1;
+        Page right = insert(internal.children[child], key, value);
+        if (right == null) {
+            return null;
+        }
+        int moved = internal.count - child;
+        System.arraycopy(internal.keys, child, internal.keys, child + 1, moved);
+        System.arraycopy(internal.children, child + 1, internal.children, child + 2, moved);
+        internal.keys[child] = splitKey;
+        internal.children[child + 1] = right;
+        internal.count++;
+        return internal.count > maxKeys ? splitInternal(internal) : null;
+    }
+
+    /** Moves the upper half of LEAF into a new leaf linked after it, and returns that leaf. */
+    private Leaf splitLeaf(Leaf leaf) {
+        Leaf right = newLeaf();
+        int mid = leaf.count / 2;
+        right.count = leaf.count - mid;
+        System.arraycopy(leaf.keys, mid, right.keys, 0, right.count);
+        System.arraycopy(leaf.values, mid, right.values, 0, right.count);
+        Arrays.fill(leaf.keys, mid, leaf.count, null);
+        Arrays.fill(leaf.values, mid, leaf.count, null);
+        leaf.count = mid;
+        right.next = leaf.next;
+        leaf.next = right;
+        splitKey = right.keys[0]; // Leaves keep their first key; the parent gets a copy
+        return right;
+    }
+
+    /** Moves the upper half of PAGE into a new page, and returns that page. */
+    private Internal splitInternal(Internal page) {
+        Internal right = newInternal();
+        int mid = page.count / 2;
+        splitKey = page.keys[mid]; // The middle key moves up to the parent
+        right.count = page.count - mid - 1;
+        System.arraycopy(page.keys, mid + 1, right.keys, 0, right.count);
+        System.arraycopy(page.children, mid + 1, right.children, 0, right.count + 1);
+        Arrays.fill(page.keys, mid, page.count, null);
+        Arrays.fill(page.children, mid + 1, page.count + 1, null);
+        page.count = mid;
+        return right;
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        Leaf leaf = findLeaf(key);
+        int i = search(leaf, key);
+        if (i < 0) {
+            return null; // Absent keys leave the tree untouched
+        }
+        @SuppressWarnings("unchecked")
+        V value = (V) leaf.values[i];
+        delete(root, key);
+        if (root instanceof Internal && root.count == 0) {
+            root = ((Internal) root).children[0]; // The tree shrinks a level at the top
+        }
+        return value;
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        if (key == null || !containsKey(key) || !Objects.equals(get(key), value)) {
+            return null;
+        }
+        remove(key);
+        return value;
+    }
+
+    /** Removes KEY, which is present, from the subtree rooted at PAGE. */
+    private void delete(Page page, K key) {
+        if (page instanceof Leaf) {
+            Leaf leaf = (Leaf) page;
+            int i = search(leaf, key);
+            int moved = leaf.count - i - 1;
+            System.arraycopy(leaf.keys, i + 1, leaf.keys, i, moved);
+            System.arraycopy(leaf.values, i + 1, leaf.values, i, moved);
+            leaf.count--;
+            leaf.keys[leaf.count] = null;
+            leaf.values[leaf.count] = null;
+            size--;
+            return;
+        }
+        Internal internal = (Internal) page;
+        int child = childIndex(internal, key);
+        delete(internal.children[child], key);
+        if (internal.children[child].count < minKeys) {
+            fixUnderflow(internal, child);
+        }
+    }
+
+    /**
+     * Refills PARENT's child I, which has one key too few, by borrowing a key
+     * from a sibling that can spare one, or else by merging with a sibling.
+     */
+    private void fixUnderflow(Internal parent, int i) {
+        Page left = i > 0 ? parent.children[i - 1] : null;
+        Page right = i < parent.count ? parent.children[i + 1] : null;
+        if (left != null && left.count > minKeys) {
+            borrowFromLeft(parent, i);
+        } else if (right != null && right.count > minKeys) {
+            borrowFromRight(parent, i);
+        } else if (left != null) {
+            merge(parent, i - 1);
+        } else {
+            merge(parent, i);
+        }
+    }
+
+    /** Moves the last entry of child I - 1 of PARENT to the front of child I. */
+    private void borrowFromLeft(Internal parent, int i) {
+        Page page = parent.children[i];
+        Page left = parent.children[i - 1];
+        System.arraycopy(page.keys, 0, page.keys, 1, page.count);
+        if (page instanceof Leaf) {
+            Leaf leaf = (Leaf) page;
+            Leaf from = (Leaf) left;
+            System.arraycopy(leaf.values, 0, leaf.values, 1, leaf.count);
+            leaf.keys[0] = from.keys[from.count - 1];
+            leaf.values[0] = from.values[from.count - 1];
+            from.values[from.count - 1] = null;
+            parent.keys[i - 1] = leaf.keys[0];
+        } else {
+            Internal internal = (Internal) page;
+            Internal from = (Internal) left;
+            System.arraycopy(internal.children, 0, internal.children, 1, internal.count + 1);
+            internal.keys[0] = parent.keys[i - 1];
+            internal.children[0] = from.children[from.count];
+            from.children[from.count] = null;
+            parent.keys[i - 1] = from.keys[from.count - 1];
+        }
+        left.keys[left.count - 1] = null;
+        left.count--;
+        page.count++;
+    }
+
+    /** Moves the first entry of child I + 1 of PARENT to the end of child I. */
+    private void borrowFromRight(Internal parent, int i) {
+        Page page = parent.children[i];
+        Page right = parent.children[i + 1];
+        if (page instanceof Leaf) {
+            Leaf leaf = (Leaf) page;
+            Leaf from = (Leaf) right;
+            leaf.keys[leaf.count] = from.keys[0];
+            leaf.values[leaf.count] = from.values[0];
+            System.arraycopy(from.values, 1, from.values, 0, from.count - 1);
+            from.values[from.count - 1] = null;
+            System.arraycopy(from.keys, 1, from.keys, 0, from.count - 1);
+            parent.keys[i] = from.keys[0];
+        } else {
+            Internal internal = (Internal) page;
+            Internal from = (Internal) right;
+            internal.keys[internal.count] = parent.keys[i];
+            internal.children[internal.count + 1] = from.children[0];
+            parent.keys[i] = from.keys[0];
+            System.arraycopy(from.keys, 1, from.keys, 0, from.count - 1);
+            System.arraycopy(from.children, 1, from.children, 0, from.count);
+            from.children[from.count] = null;
+        }
+        right.keys[right.count - 1] = null;
+        right.count--;
+        page.count++;
+    }
+
+    /**
+     * Merges child I + 1 of PARENT into child I and drops separator I from
+     * PARENT. Both children are small enough for the result to fit in a page.
+     */
+    private void merge(Internal parent, int i) {
+        Page left = parent.children[i];
+        Page right = parent.children[i + 1];
+        if (left instanceof Leaf) {
+            Leaf leaf = (Leaf) left;
+            Leaf from = (Leaf) right;
+            System.arraycopy(from.keys, 0, leaf.keys, leaf.count, from.count);
+            System.arraycopy(from.values, 0, leaf.values, leaf.count, from.count);
+            leaf.count += from.count;
+            leaf.next = from.next;
+        } else {
+            Internal internal = (Internal) left;
+            Internal from = (Internal) right;
+            internal.keys[internal.count] = parent.keys[i]; // The separator moves back down
+            System.arraycopy(from.keys, 0, internal.keys, internal.count + 1, from.count);
+            System.arraycopy(from.children, 0, internal.children, internal.count + 1, from.count + 1);
+            internal.count += from.count + 1;
+        }
+        int moved = parent.count - i - 1;
+        System.arraycopy(parent.keys, i + 1, parent.keys, i, moved);
+        System.arraycopy(parent.children, i + 2, parent.children, i + 1, moved);
+        parent.count--;
+        parent.keys[parent.count] = null;
+        parent.children[parent.count + 1] = null;
+    }
+
+    /** Returns a live view of the keys in increasing order. */
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<K> iterator() {
+                return BTreeMap.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                try {
+                    return containsKey((K) o);
+                } catch (ClassCastException e) {
+                    return false; // a key that compareTo can't handle
+                }
+            }
+        };
+    }
+
+    /** Returns an iterator over the keys in increasing order. */
+    @Override
+    public Iterator<K> iterator() {
+        return new LeafIterator(first, 0, null);
+    }
+
+    /**
+     * Returns the keys in [FROMKEY, TOKEY) in increasing order. Iterating k
+     * keys costs one descent to the first leaf plus O(k), as the scan then
+     * follows the leaf links.
+     */
+    public Iterable<K> keys(K fromKey, K toKey) {
+        if (fromKey.compareTo(toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return () -> {
+            Leaf leaf = findLeaf(fromKey);
+            int i = search(leaf, fromKey);
+            return new LeafIterator(leaf, i >= 0 ? i : -i - 1, toKey);
+        };
+    }
+
+    /** Walks the linked leaves from entry I of LEAF up to, but not including, HI. */
+    private class LeafIterator implements Iterator<K> {
+        private Leaf leaf;
+        private int i;
+        private final K hi;
+
+        LeafIterator(Leaf leaf, int i, K hi) {
+            this.leaf = leaf;
+            this.i = i;
+            this.hi = hi;
+            skipExhaustedLeaves();
+        }
+
+        /** Moves past leaves that have no entries left to visit. */
+        private void skipExhaustedLeaves() {
+            while (leaf != null && i >= leaf.count) {
+                leaf = leaf.next;
+                i = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null && (hi == null || keyAt(leaf, i).compareTo(hi) < 0);
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = keyAt(leaf, i++);
+            skipExhaustedLeaves();
+            return key;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package bstmap;
+
+import java.io.IOException;
+import java.util.Scanner;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import edu.princeton.cs.algs4.Stopwatch;
+
+/**
+ * The multi-threaded counterpart of InsertRandomSpeedTest. T threads share
+ * one map: each puts its own N / T random Strings of length L, and then each
+ * gets them back. This runs for T = 1, 2, 4, ... up to the number of cores,
+ * for the lock-free SkipListMap, for a balanced BSTMap behind one global lock
+ * and for Java's ConcurrentSkipListMap. A map that scales gets faster as T
+ * grows, while the locked BSTMap can use only one core at a time.
+ */
+public class ConcurrentInsertSpeedTest {
+    /**
+     * Requests user input and prints the times for every map and thread
+     * count. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Scanner input = new Scanner(System.in);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("This program inserts random Strings of length L into maps "
+                + "shared by 1 to " + cores + " threads, then gets them back.");
+        System.out.print("Please enter desired length of each string: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into the maps: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            for (int threads = 1; threads <= cores; threads = nextThreadCount(threads, cores)) {
+                String[][] keys = randomKeys(N, L, threads);
+                System.out.println(threads + (threads == 1 ? " thread:" : " threads:"));
+
+                SkipListMap<String, Integer> skipList = new SkipListMap<>();
+                timeConcurrent("SkipListMap", skipList::put, skipList::get, keys);
+
+                BSTMap<String, Integer> tree = new BSTMap<>(true);
+                timeConcurrent("balanced BSTMap with a global lock",
+                    (key, value) -> {
+                        synchronized (tree) {
+                            tree.put(key, value);
+                        }
+                    },
+                    key -> {
+                        synchronized (tree) {
+                            return tree.get(key);
+                        }
+                    }, keys);
+
+                ConcurrentSkipListMap<String, Integer> javaMap = new ConcurrentSkipListMap<>();
+                timeConcurrent("Java's Built-in ConcurrentSkipListMap", javaMap::put, javaMap::get, keys);
+            }
+
+            System.out.print("Would you like to try more timed-tests? (y/n): ");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Returns the thread count after THREADS: the next power of two, or CORES itself. */
+    private static int nextThreadCount(int threads, int cores) {
+        if (threads == cores) {
+            return cores + 1;
+        }
+        return Math.min(threads * 2, cores);
+    }
+
+    /** Returns THREADS arrays that split N random Strings of length L between them. */
+    private static String[][] randomKeys(int N, int L, int threads) {
+        String[][] keys = new String[threads][];
+        for (int t = 0; t < threads; t++) {
+            keys[t] = new String[N / threads + (t < N % threads ? 1 : 0)];
+            for (int i = 0; i < keys[t].length; i++) {
+                keys[t][i] = StringUtils.randomString(L);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Starts one thread per array of KEYS, each putting its keys with PUT,
+     * then again each getting them back with GET, and prints the throughput
+     * of both phases.
+     */
+    public static void timeConcurrent(String name, BiConsumer<String, Integer> put,
+                                      Function<String, Integer> get, String[][] keys)
+            throws InterruptedException {
+        int N = 0;
+        for (String[] part : keys) {
+            N += part.length;
+        }
+        double putTime = runThreads(keys, part -> {
+            for (int i = 0; i < part.length; i++) {
+                put.accept(part[i], i);
+            }
+        });
+        double getTime = runThreads(keys, part -> {
+            for (String key : part) {
+                get.apply(key);
+            }
+        });
+        System.out.printf("  %s: %.2f sec for puts (%.0f puts/sec), %.2f sec for gets (%.0f gets/sec)\n",
+                name, putTime, N / Math.max(putTime, 1e-3), getTime, N / Math.max(getTime, 1e-3));
+    }
+
+    /** Runs WORK on every array of KEYS, each in its own thread, and returns the wall time. */
+    private static double runThreads(String[][] keys, Consumer<String[]> work)
+            throws InterruptedException {
+        Thread[] threads = new Thread[keys.length];
+        for (int t = 0; t < keys.length; t++) {
+            String[] part = keys[t];
+            threads[t] = new Thread(() -> work.accept(part));
+        }
+        Stopwatch sw = new Stopwatch();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return sw.elapsedTime();
+    }
+}
@@ -0,0 +1,61 @@
+package bstmap;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.Scanner;
+import edu.princeton.cs.algs4.Stopwatch;
+
+/**
+ * Times put and get on a plain BSTMap whose keys arrive in increasing order,
+ * which makes the tree as deep as it is large, and on a balanced BSTMap fed
+ * the same keys. With N above 100,000 this used to end in a StackOverflowError.
+ */
+public class DeepTreeSpeedTest {
+    /** Number of gets timed on each tree. */
+    private static final int GETS = 10000;
+
+    /**
+     * Requests user input and prints put and get throughput for each tree.
+     * ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("This program inserts N increasing Integers into BSTMaps, "
+                + "then gets " + GETS + " keys from the deepest tenth of them.");
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter N, the depth of the plain tree: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            timeDeepTree(new BSTMap<>(), N);
+            timeDeepTree(new BSTMap<>(true), N);
+
+            System.out.print("Would you like to try more timed-tests? (y/n): ");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Fills MAP with the keys 0 .. N - 1 in order, then times gets of the largest keys. */
+    public static void timeDeepTree(BSTMap<Integer, Integer> map, int N) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < N; i++) {
+            map.put(i, i);
+        }
+        double putTime = sw.elapsedTime();
+
+        Random random = new Random(61);
+        int deepest = Math.max(1, N / 10);
+        long sum = 0;
+        sw = new Stopwatch();
+        for (int i = 0; i < GETS; i++) {
+            sum += map.get(N - 1 - random.nextInt(deepest));
+        }
+        double getTime = sw.elapsedTime();
+
+        System.out.printf("%s: height %d, %.0f puts/sec, %.0f gets/sec (checksum %d)\n",
+                map.isBalanced() ? "balanced BSTMap" : "plain BSTMap", map.height(),
+                N / Math.max(putTime, 1e-3), GETS / Math.max(getTime, 1e-3), sum);
+    }
+}
@@ -0,0 +1,97 @@
+package bstmap;
+
+import java.io.IOException;
+import java.lang.ref.Reference;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import edu.princeton.cs.algs4.Stopwatch;
+
+/**
+ * Measures how much heap a map of N Integer entries takes beyond its keys and
+ * values, and how long a full collection takes while it is live, for a plain
+ * BSTMap, an ArrayBSTMap grown by doubling, a presized ArrayBSTMap and Java's
+ * TreeMap. The keys are allocated before the first measurement and each is
+ * its own value, so the difference in used heap is the map's own structure.
+ * A full collection traces every live object, so its time grows with the
+ * number of node objects.
+ *
+ * Needs a heap of about 4 GB for 50,000,000 entries, e.g. java -Xmx4500m.
+ */
+public class FootprintSpeedTest {
+    /**
+     * Requests user input and prints the footprint of each map.
+     * ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("This program puts N random Integers into maps and prints the heap "
+                + "each map uses per entry, beyond its keys.");
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # entries to put into the maps: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            Integer[] keys = randomKeys(N);
+            timeFootprint("plain BSTMap", () -> new BSTMap<Integer, Integer>(),
+                (map, key) -> map.put(key, key), keys);
+            timeFootprint("ArrayBSTMap", () -> new ArrayBSTMap<Integer, Integer>(),
+                (map, key) -> map.put(key, key), keys);
+            timeFootprint("ArrayBSTMap presized to N", () -> new ArrayBSTMap<Integer, Integer>(N),
+                (map, key) -> map.put(key, key), keys);
+            timeFootprint("Java's Built-in TreeMap", () -> new TreeMap<Integer, Integer>(),
+                (map, key) -> map.put(key, key), keys);
+
+            System.out.print("Would you like to try more timed-tests? (y/n): ");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Returns N random Integers, which may repeat. */
+    private static Integer[] randomKeys(int N) {
+        Random random = new Random(61);
+        Integer[] keys = new Integer[N];
+        for (int i = 0; i < N; i++) {
+            keys[i] = random.nextInt();
+        }
+        return keys;
+    }
+
+    /**
+     * Fills a map made by CREATE with KEYS through PUT, each key its own
+     * value, then prints the time of the puts, the heap the map holds per
+     * entry and the time of a full collection with the map live.
+     */
+    private static <M> void timeFootprint(String name, Supplier<M> create,
+                                          BiConsumer<M, Integer> put, Integer[] keys) {
+        long before = usedHeap();
+        M map = create.get();
+        Stopwatch sw = new Stopwatch();
+        for (Integer key : keys) {
+            put.accept(map, key);
+        }
+        double putTime = sw.elapsedTime();
+
+        long after = usedHeap();
+        sw = new Stopwatch();
+        System.gc();
+        double gcTime = sw.elapsedTime();
+        Reference.reachabilityFence(map); // Keeps the map live through both measurements
+
+        System.out.printf("  %s: %.2f sec puts, %.1f bytes per entry, %.3f sec full GC\n",
+                name, putTime, (double) (after - before) / keys.length, gcTime);
+    }
+
+    /** Returns the bytes of heap in use after collecting everything unreachable. */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -1,6 +1,9 @@
 package bstmap;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.TreeMap;
 import java.io.IOException;
 import java.util.Scanner;
@@ -33,6 +36,11 @@ public class InsertInOrderSpeedTest {
             int N = i.waitForPositiveInt(input);
             timeInOrderMap61B(new ULLMap<>(), N);
             timeInOrderMap61B(new BSTMap<>(), N);
+            timeInOrderMap61B(new BSTMap<>(true), N);
+            timeInOrderMap61B(new BTreeMap<>(), N);
+            timeInOrderMap61B(new TSTMap<>(), N);
+            timeFromSorted(N, false);
+            timeFromSorted(N, true);
             timeInOrderTreeMap(new TreeMap<>(), N);
             timeInOrderHashMap(new HashMap<>(), N);
 
@@ -56,6 +64,26 @@ public class InsertInOrderSpeedTest {
         return sw.elapsedTime();
     }
 
+    /**
+     * Returns time needed to build a BSTMap of the same N strings with
+     * BSTMap.fromSorted. nextString counts in shortlex order ("zzz" comes
+     * before "aaaa"), so the strings are sorted before the clock starts.
+     */
+    public static double buildFromSorted(int N, boolean balanced) {
+        List<String> keys = new ArrayList<>(N);
+        List<Integer> values = new ArrayList<>(N);
+        String s = "cat";
+        for (int i = 0; i < N; i++) {
+            s = StringUtils.nextString(s);
+            keys.add(s);
+            values.add(i);
+        }
+        Collections.sort(keys);
+        Stopwatch sw = new Stopwatch();
+        BSTMap.fromSorted(keys.iterator(), values.iterator(), balanced);
+        return sw.elapsedTime();
+    }
+
     /**
      * Returns time needed to put N strings into TreeMap in increasing order.
      */
@@ -87,7 +115,7 @@ public class InsertInOrderSpeedTest {
     public static void timeInOrderMap61B(Map61B<String, Integer> map, int N) {
         try {
             double mapTime = insertInOrder(map, N);
-            System.out.printf(map.getClass() + ": %.2f sec\n", mapTime);
+            System.out.printf(InsertRandomSpeedTest.describe(map) + ": %.2f sec\n", mapTime);
         } catch (StackOverflowError e) {
             printInfoOnStackOverflow(N);
         } catch (RuntimeException e) {
@@ -95,6 +123,12 @@ public class InsertInOrderSpeedTest {
         }
     }
 
+    /** Prints the time of building a BSTMap of N in-order strings with fromSorted. */
+    public static void timeFromSorted(int N, boolean balanced) {
+        double mapTime = buildFromSorted(N, balanced);
+        System.out.printf("%sBSTMap.fromSorted: %.2f sec\n", balanced ? "balanced " : "", mapTime);
+    }
+
     /**
      * Attempts to insert N in-order strings of length L into TreeMap,
      * Prints time of the N insert calls, otherwise
@@ -31,6 +31,10 @@ public class InsertRandomSpeedTest {
             int N = waitForPositiveInt(input);
             timeRandomMap61B(new ULLMap<>(), N, L);
             timeRandomMap61B(new BSTMap<>(), N, L);
+            timeRandomMap61B(new BSTMap<>(true), N, L);
+            timeRandomMap61B(new ArrayBSTMap<>(), N, L);
+            timeRandomMap61B(new BTreeMap<>(), N, L);
+            timeRandomMap61B(new TSTMap<>(), N, L);
             timeRandomTreeMap(new TreeMap<>(), N, L);
             timeRandomHashMap(new HashMap<>(), N, L);
 
@@ -84,7 +88,7 @@ public class InsertRandomSpeedTest {
     public static void timeRandomMap61B(Map61B<String, Integer> map, int N, int L) {
         try {
             double mapTime = insertRandom(map, N, L);
-            System.out.printf(map.getClass() + ": %.2f sec\n", mapTime);
+            System.out.printf(describe(map) + ": %.2f sec\n", mapTime);
         } catch (StackOverflowError e) {
             printInfoOnStackOverflow(N, L);
         } catch (RuntimeException e) {
@@ -156,4 +160,11 @@ public class InsertRandomSpeedTest {
         System.out.print("Please enter a positive integer: ");
     }
 
+    /** Returns the class of MAP, marking balanced BSTMaps as such. */
+    static String describe(Map61B<String, Integer> map) {
+        if (map instanceof BSTMap && ((BSTMap<String, Integer>) map).isBalanced()) {
+            return "balanced " + map.getClass();
+        }
+        return map.getClass().toString();
+    }
 }
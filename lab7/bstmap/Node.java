@@ -0,0 +1,70 @@
+package bstmap;
+
+/** Each key is absolutely unique.You cannot have two identical keys in one tree. */
+class Node<K extends Comparable<K>, V> {
+    private K key;
+    private V value;
+    private Node<K, V> left;
+    private Node<K, V> right;
+    /** Whether the link from the parent is red; only used by balanced maps. */
+    private boolean red;
+    /** Number of nodes in the subtree rooted at this node */
+    private int size = 1;
+
+    Node(K key, V value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public V getValue() {
+        return value;
+    }
+
+    public void setValue(V value) {
+        this.value = value;
+    }
+
+    public Node<K, V> getLeft() {
+        return left;
+    }
+
+    public Node<K, V> getRight() {
+        return right;
+    }
+
+    public void setLeft(Node<K,V> node) {
+        left = node;
+    }
+
+    public void setRight(Node<K,V> node) {
+        right = node;
+    }
+
+    public boolean isLeaf() {
+        return getLeft() == null && getRight() == null;
+    }
+
+    public void setKey(K key) {
+        this.key = key;
+    }
+
+    public boolean isRed() {
+        return red;
+    }
+
+    public void setRed(boolean red) {
+        this.red = red;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,309 @@
+package bstmap;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map whose tree is never changed once it is published. put and remove
+ * copy the nodes on the path to the change, share every other subtree with
+ * the previous version, and then swap in the new root. That makes a
+ * snapshot one volatile read: it keeps the root of the moment and still
+ * sees exactly that version, however the map changes later.
+ *
+ * The tree is built from the same Node class as BSTMap. It is kept
+ * weight-balanced (Adams' trees, as in Haskell's Data.Map): neither
+ * subtree of a node holds more than DELTA times as many nodes as the other,
+ * so paths, and the number of nodes copied per update, are O(log N). The
+ * balancing only creates new nodes, so it never touches published ones.
+ *
+ * Readers take no locks. get, containsKey, size and iterators read the root
+ * once and walk immutable nodes, so each works on one consistent version.
+ * The volatile root publishes the nodes built before it was written.
+ * Writers are serialized on the map's monitor.
+ *
+ * A map could have an entry whose value equals null. Null keys are ignored.
+ */
+public class PersistentBSTMap<K extends Comparable<K>, V> implements Map61B<K, V> {
+    /** A node is out of balance when one subtree has more than DELTA times the other's nodes */
+    private static final int DELTA = 3;
+    /** Decides between a single and a double rotation when rebalancing */
+    private static final int RATIO = 2;
+
+    /** Root of the current version; the nodes below it are never modified */
+    volatile Node<K, V> root;
+
+    /** Creates an empty map. */
+    public PersistentBSTMap() {
+        this(null);
+    }
+
+    private PersistentBSTMap(Node<K, V> root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the current version of the map in O(1). It is a map of its
+     * own: later changes to this map don't show in it, and changes to it
+     * don't show here. Any number of threads can read it without locking.
+     */
+    public PersistentBSTMap<K, V> snapshot() {
+        return new PersistentBSTMap<>(root);
+    }
+
+    @Override
+    public synchronized void clear() {
+        root = null;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return findNode(root, key) != null;
+    }
+
+    @Override
+    public V get(K key) {
+        Node<K, V> node = findNode(root, key);
+        return node == null ? null : node.getValue();
+    }
+
+    /** Returns the node holding KEY in the version rooted at NODE, or null if there is none. */
+    private static <K extends Comparable<K>, V> Node<K, V> findNode(Node<K, V> node, K key) {
+        if (key == null) {
+            return null;
+        }
+        while (node != null) {
+            int cmp = key.compareTo(node.getKey());
+            if (cmp == 0) {
+                return node;
+            }
+            node = cmp < 0 ? node.getLeft() : node.getRight();
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return sizeOf(root);
+    }
+
+    /** Returns the number of nodes on the longest path from the root to a leaf. */
+    public int height() {
+        return height(root);
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : 1 + Math.max(height(node.getLeft()), height(node.getRight()));
+    }
+
+    @Override
+    public synchronized void put(K key, V value) {
+        if (key == null) {
+            return;
+        }
+        root = insert(root, key, value);
+    }
+
+    @Override
+    public synchronized V remove(K key) {
+        Node<K, V> found = findNode(root, key);
+        if (found == null) {
+            return null; // Absent keys leave the current version in place
+        }
+        root = delete(root, key);
+        return found.getValue();
+    }
+
+    @Override
+    public synchronized V remove(K key, V value) {
+        Node<K, V> found = findNode(root, key);
+        if (found == null || !Objects.equals(found.getValue(), value)) {
+            return null;
+        }
+        root = delete(root, key);
+        return value;
+    }
+
+    /* ---------------------- Path copying ---------------------- */
+
+    private static int sizeOf(Node<?, ?> node) {
+        return node == null ? 0 : node.getSize();
+    }
+
+    /** Returns a new node with the given entry and children. Nodes are only ever set up here. */
+    private static <K extends Comparable<K>, V> Node<K, V> node(K key, V value,
+                                                              Node<K, V> left, Node<K, V> right) {
+        Node<K, V> node = new Node<>(key, value);
+        node.setLeft(left);
+        node.setRight(right);
+        node.setSize(1 + sizeOf(left) + sizeOf(right));
+        return node;
+    }
+
+    /** Returns a copy of the subtree at NODE with KEY mapped to VALUE. */
+    private static <K extends Comparable<K>, V> Node<K, V> insert(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return node(key, value, null, null);
+        }
+        int cmp = key.compareTo(node.getKey());
+        if (cmp < 0) {
+            return balance(node.getKey(), node.getValue(),
+                    insert(node.getLeft(), key, value), node.getRight());
+        } else if (cmp > 0) {
+            return balance(node.getKey(), node.getValue(),
+                    node.getLeft(), insert(node.getRight(), key, value));
+        }
+        return node(key, value, node.getLeft(), node.getRight()); // Same shape, new value
+    }
+
+    /** Returns a copy of the subtree at NODE without KEY, which is in it. */
+    private static <K extends Comparable<K>, V> Node<K, V> delete(Node<K, V> node, K key) {
+        int cmp = key.compareTo(node.getKey());
+        if (cmp < 0) {
+            return balance(node.getKey(), node.getValue(), delete(node.getLeft(), key), node.getRight());
+        } else if (cmp > 0) {
+            return balance(node.getKey(), node.getValue(), node.getLeft(), delete(node.getRight(), key));
+        }
+        return glue(node.getLeft(), node.getRight());
+    }
+
+    /** Joins two balanced subtrees, every key of LEFT below every key of RIGHT. */
+    private static <K extends Comparable<K>, V> Node<K, V> glue(Node<K, V> left, Node<K, V> right) {
+        if (left == null) {
+            return right;
+        } else if (right == null) {
+            return left;
+        }
+        // Moves up the closest key from the larger side, so the sides stay balanced
+        if (sizeOf(left) > sizeOf(right)) {
+            Node<K, V> max = left;
+            while (max.getRight() != null) {
+                max = max.getRight();
+            }
+            return balance(max.getKey(), max.getValue(), deleteMax(left), right);
+        }
+        Node<K, V> min = right;
+        while (min.getLeft() != null) {
+            min = min.getLeft();
+        }
+        return balance(min.getKey(), min.getValue(), left, deleteMin(right));
+    }
+
+    private static <K extends Comparable<K>, V> Node<K, V> deleteMin(Node<K, V> node) {
+        if (node.getLeft() == null) {
+            return node.getRight();
+        }
+        return balance(node.getKey(), node.getValue(), deleteMin(node.getLeft()), node.getRight());
+    }
+
+    private static <K extends Comparable<K>, V> Node<K, V> deleteMax(Node<K, V> node) {
+        if (node.getRight() == null) {
+            return node.getLeft();
+        }
+        return balance(node.getKey(), node.getValue(), node.getLeft(), deleteMax(node.getRight()));
+    }
+
+    /**
+     * Returns a node for KEY and VALUE over LEFT and RIGHT, rotated if one
+     * side has become too heavy. The sides were balanced before one of them
+     * gained or lost a single node, which a single or double rotation fixes.
+     */
+    private static <K extends Comparable<K>, V> Node<K, V> balance(K key, V value,
+                                                                 Node<K, V> left, Node<K, V> right) {
+        int leftSize = sizeOf(left);
+        int rightSize = sizeOf(right);
+        if (leftSize + rightSize <= 1) {
+            return node(key, value, left, right);
+        }
+        if (rightSize > DELTA * leftSize) {
+            Node<K, V> rl = right.getLeft();
+            Node<K, V> rr = right.getRight();
+            if (sizeOf(rl) < RATIO * sizeOf(rr)) {
+                return node(right.getKey(), right.getValue(), node(key, value, left, rl), rr);
+            }
+            return node(rl.getKey(), rl.getValue(), node(key, value, left, rl.getLeft()),
+                    node(right.getKey(), right.getValue(), rl.getRight(), rr));
+        }
+        if (leftSize > DELTA * rightSize) {
+            Node<K, V> ll = left.getLeft();
+            Node<K, V> lr = left.getRight();
+            if (sizeOf(lr) < RATIO * sizeOf(ll)) {
+                return node(left.getKey(), left.getValue(), ll, node(key, value, lr, right));
+            }
+            return node(lr.getKey(), lr.getValue(), node(left.getKey(), left.getValue(), ll, lr.getLeft()),
+                    node(key, value, lr.getRight(), right));
+        }
+        return node(key, value, left, right);
+    }
+
+    /* ---------------------- Iteration ---------------------- */
+
+    /** Returns a live view of the keys; each iterator walks the version current when it is created. */
+    @Override
+    public Set<K> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<K> iterator() {
+                return PersistentBSTMap.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return PersistentBSTMap.this.size();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public boolean contains(Object o) {
+                try {
+                    return containsKey((K) o);
+                } catch (ClassCastException e) {
+                    return false; // a key that compareTo can't handle
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the keys in increasing order, as they are at
+     * the time of the call. Changes made while iterating don't affect it.
+     */
+    @Override
+    public Iterator<K> iterator() {
+        Node<K, V> version = root;
+        return new Iterator<>() {
+            // Holds the nodes whose key and right subtree are still to be visited
+            private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+
+            {
+                pushLeftSpine(version);
+            }
+
+            private void pushLeftSpine(Node<K, V> node) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.getLeft();
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public K next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Node<K, V> node = stack.pop();
+                pushLeftSpine(node.getRight());
+                return node.getKey();
+            }
+        };
+    }
+}
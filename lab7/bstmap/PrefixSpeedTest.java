@@ -0,0 +1,164 @@
+package bstmap;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import edu.princeton.cs.algs4.Stopwatch;
+
+/**
+ * Times put, get and prefix queries on TSTMap and on the other String maps,
+ * with two kinds of keys of length L:
+ * - random keys, as in InsertRandomSpeedTest, which differ within the first
+ *   few characters;
+ * - shared-prefix keys, which start with one of a few long prefixes (like
+ *   "user/0042/" or URLs) and so make every whole-String comparison and hash
+ *   read the long common part.
+ * A prefix query counts, one by one, the keys that start with the first P
+ * characters of a stored key. TSTMap and the ordered maps answer it from the
+ * matching part of the tree; HashMap has to scan all of its keys.
+ */
+public class PrefixSpeedTest {
+    /** Number of prefix queries timed per map. */
+    private static final int QUERIES = 100;
+    /** Number of distinct prefixes among the shared-prefix keys. */
+    private static final int PREFIXES = 100;
+
+    /**
+     * Requests user input and prints the times for each map and key set.
+     * ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("This program puts N Strings of length L into maps, gets them "
+                + "back, and counts the keys with " + QUERIES + " prefixes of length P.");
+        System.out.print("Please enter desired length of each string: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+        System.out.print("Please enter the prefix length P: ");
+        int P = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into the maps: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            Random random = new Random(61);
+            System.out.println("Random keys:");
+            timeAll(randomKeys(random, N, L, 0), P);
+            System.out.println("Keys sharing " + PREFIXES + " prefixes of length " + L / 2 + ":");
+            timeAll(randomKeys(random, N, L, L / 2), P);
+
+            System.out.print("Would you like to try more timed-tests? (y/n): ");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /**
+     * Returns N random lowercase Strings of length L. If SHARED is positive,
+     * the first SHARED characters of each are one of PREFIXES random prefixes.
+     */
+    private static String[] randomKeys(Random random, int N, int L, int shared) {
+        String[] prefixes = new String[PREFIXES];
+        for (int i = 0; i < PREFIXES; i++) {
+            prefixes[i] = randomString(random, shared);
+        }
+        String[] keys = new String[N];
+        for (int i = 0; i < N; i++) {
+            keys[i] = prefixes[random.nextInt(PREFIXES)] + randomString(random, L - shared);
+        }
+        return keys;
+    }
+
+    private static String randomString(Random random, int length) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(chars);
+    }
+
+    /** Times every map on KEYS, with prefixes of length P. */
+    private static void timeAll(String[] keys, int P) {
+        String[] prefixes = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String key = keys[i * 7919 % keys.length];
+            prefixes[i] = key.substring(0, Math.min(P, key.length()));
+        }
+
+        TSTMap<Integer> tst = new TSTMap<>();
+        time("TSTMap", tst::put, tst::get, keys, prefixes,
+            prefix -> count(tst.keysWithPrefix(prefix)));
+
+        BSTMap<String, Integer> tree = new BSTMap<>(true);
+        time("balanced BSTMap", tree::put, tree::get, keys, prefixes,
+            prefix -> count(tree.subMap(prefix, prefix + Character.MAX_VALUE)));
+
+        BTreeMap<String, Integer> btree = new BTreeMap<>();
+        time("BTreeMap", btree::put, btree::get, keys, prefixes,
+            prefix -> count(btree.keys(prefix, prefix + Character.MAX_VALUE)));
+
+        TreeMap<String, Integer> treeMap = new TreeMap<>();
+        time("Java's Built-in TreeMap", treeMap::put, treeMap::get, keys, prefixes,
+            prefix -> count(treeMap.subMap(prefix, prefix + Character.MAX_VALUE).keySet()));
+
+        HashMap<String, Integer> hashMap = new HashMap<>();
+        time("Java's Built-in HashMap (prefix queries scan all keys)", hashMap::put, hashMap::get,
+            keys, prefixes, prefix -> {
+                int count = 0;
+                for (String key : hashMap.keySet()) {
+                    if (key.startsWith(prefix)) {
+                        count++;
+                    }
+                }
+                return count;
+            });
+    }
+
+    /**
+     * Returns the number of KEYS, counted one by one, so that every map pays
+     * for visiting its matches.
+     */
+    private static int count(Iterable<String> keys) {
+        int count = 0;
+        for (String key : keys) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Puts every key with PUT, gets every key with GET, runs COUNTPREFIX on
+     * every prefix, and prints the three times.
+     */
+    private static void time(String name, BiConsumer<String, Integer> put,
+                             Function<String, Integer> get, String[] keys,
+                             String[] prefixes, ToIntFunction<String> countPrefix) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < keys.length; i++) {
+            put.accept(keys[i], i);
+        }
+        double putTime = sw.elapsedTime();
+
+        long sum = 0;
+        sw = new Stopwatch();
+        for (String key : keys) {
+            sum += get.apply(key);
+        }
+        double getTime = sw.elapsedTime();
+
+        long matches = 0;
+        sw = new Stopwatch();
+        for (String prefix : prefixes) {
+            matches += countPrefix.applyAsInt(prefix);
+        }
+        double prefixTime = sw.elapsedTime();
+
+        System.out.printf("  %s: %.2f sec puts, %.2f sec gets, %.3f sec prefix queries"
+                + " (%d matches, checksum %d)\n", name, putTime, getTime, prefixTime, matches, sum);
+    }
+}
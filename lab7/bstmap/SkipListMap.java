@@ -0,0 +1,495 @@
+package bstmap;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * An ordered map that any number of threads can use at once without locks:
+ * a lock-free skip list in the style of Herlihy and Shavit's LockFreeSkipList.
+ * Every key is in the bottom list, and each node is also linked into a random
+ * number of the lists above it, each level holding about half the nodes of the
+ * one below. A search starts at the top and drops a level whenever the next
+ * key is too large, so it takes O(log N) steps on average.
+ *
+ * All changes are compare-and-set operations on single fields:
+ * - A put of a new key links its node into the bottom list with one CAS;
+ *   that is when the key appears. The upper levels are linked afterwards and
+ *   only speed up searches.
+ * - A remove first swaps the node's value for DELETED, which is when the key
+ *   disappears. It then marks the node's links at every level, so no CAS can
+ *   link anything after it, and finally unlinks it. Any thread that walks
+ *   past a marked node unlinks it, so a stalled remover never blocks others.
+ *   A marked link is a Marked wrapper around the successor, rather than an
+ *   AtomicMarkableReference, so that unmarked links, which are nearly all of
+ *   them, are plain references in the node's array.
+ * - A put on an existing key swaps the value with a CAS, and retries if a
+ *   concurrent remove got there first.
+ *
+ * get and containsKey never write and never retry. Iterators and views are
+ * weakly consistent, like java.util.concurrent's: they never throw
+ * ConcurrentModificationException, see every key that is present throughout
+ * the iteration, and may or may not see keys added or removed meanwhile.
+ * size() is exact when no change is in progress.
+ *
+ * A map could have an entry whose value equals null. Null keys are ignored.
+ */
+public class SkipListMap<K extends Comparable<K>, V> implements Map61B<K, V> {
+    /** Number of levels; enough for 2^32 keys with half as many nodes per level */
+    private static final int MAX_LEVEL = 32;
+    /** Value of a node whose key has been removed */
+    private static final Object DELETED = new Object();
+    /** Stands in for a null value, so that null can't be mistaken for anything else */
+    private static final Object NULL = new Object();
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<SkipNode, Object> VALUE =
+            AtomicReferenceFieldUpdater.newUpdater(SkipNode.class, Object.class, "value");
+    /** Volatile reads and CASes of the elements of SkipNode.next */
+    private static final VarHandle LINK = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    /** A key with its value and its links, next[0] being the bottom list. */
+    private static final class SkipNode<K, V> {
+        final K key;
+        /** The value, NULL for a null value, or DELETED once the key is removed */
+        volatile Object value;
+        /** The successor at each level: a SkipNode, a Marked, or null at the end */
+        final Object[] next;
+
+        SkipNode(K key, Object value, int height) {
+            this.key = key;
+            this.value = value;
+            next = new Object[height];
+        }
+    }
+
+    /** A marked link to NEXT; it is never changed again. */
+    private static final class Marked {
+        final SkipNode<?, ?> next;
+
+        Marked(SkipNode<?, ?> next) {
+            this.next = next;
+        }
+    }
+
+    /** Returns the link of NODE at LEVEL. */
+    private static Object link(SkipNode<?, ?> node, int level) {
+        return LINK.getVolatile(node.next, level);
+    }
+
+    /** Returns the node LINK leads to, whether or not it is marked. */
+    @SuppressWarnings("unchecked")
+    private static <K, V> SkipNode<K, V> target(Object link) {
+        return (SkipNode<K, V>) (link instanceof Marked ? ((Marked) link).next : link);
+    }
+
+    /** Changes the link of NODE at LEVEL from the unmarked EXPECTED to UPDATE. */
+    private static boolean casLink(SkipNode<?, ?> node, int level, Object expected, Object update) {
+        return LINK.compareAndSet(node.next, level, expected, update);
+    }
+
+    /** Sentinel before the first key at every level; its key is never compared */
+    private final SkipNode<K, V> head = new SkipNode<>(null, null, MAX_LEVEL);
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** Creates an empty map. */
+    public SkipListMap() {
+    }
+
+    /** Returns a random node height: h with probability 2^-h, at most MAX_LEVEL. */
+    private static int randomHeight() {
+        int zeros = Integer.numberOfTrailingZeros(ThreadLocalRandom.current().nextInt());
+        return Math.min(zeros, MAX_LEVEL - 1) + 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V unmask(Object value) {
+        return value == NULL ? null : (V) value;
+    }
+
+    /**
+     * Fills PREDS and SUCCS with the last node before KEY and the first node
+     * at or after it on every level, unlinking the marked nodes on the way.
+     * Returns true if SUCCS[0] holds KEY.
+     */
+    private boolean find(K key, SkipNode<K, V>[] preds, SkipNode<K, V>[] succs) {
+        retry:
+        while (true) {
+            SkipNode<K, V> pred = head;
+            for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+                SkipNode<K, V> curr = target(link(pred, level));
+                while (curr != null) {
+                    Object link = link(curr, level);
+                    SkipNode<K, V> succ = target(link);
+                    if (link instanceof Marked) {
+                        // A marked link never changes again, so succ is curr's final successor
+                        if (!casLink(pred, level, curr, succ)) {
+                            continue retry; // pred changed or is being removed itself
+                        }
+                        curr = succ;
+                    } else if (curr.key.compareTo(key) < 0) {
+                        pred = curr;
+                        curr = succ;
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return succs[0] != null && succs[0].key.compareTo(key) == 0;
+        }
+    }
+
+    /**
+     * Returns the first node whose key is at least KEY, or after the head if
+     * KEY is null, and whose key was present when it was read. Only reads.
+     */
+    private SkipNode<K, V> ceilingNode(K key) {
+        SkipNode<K, V> pred = head;
+        SkipNode<K, V> curr = null;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            curr = target(link(pred, level));
+            while (curr != null) {
+                Object link = link(curr, level);
+                if (!(link instanceof Marked)) {
+                    if (key == null || curr.key.compareTo(key) >= 0) {
+                        break;
+                    }
+                    pred = curr;
+                }
+                curr = target(link);
+            }
+        }
+        while (curr != null && curr.value == DELETED) {
+            curr = target(link(curr, 0));
+        }
+        return curr;
+    }
+
+    /** Returns the live node holding KEY, or null if there is none. */
+    private SkipNode<K, V> findNode(K key) {
+        if (key == null) {
+            return null;
+        }
+        SkipNode<K, V> node = ceilingNode(key);
+        return node != null && node.key.compareTo(key) == 0 ? node : null;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return findNode(key) != null;
+    }
+
+    @Override
+    public V get(K key) {
+        SkipNode<K, V> node = findNode(key);
+        if (node == null) {
+            return null;
+        }
+        Object value = node.value;
+        return value == DELETED ? null : unmask(value);
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            return;
+        }
+        Object masked = value == null ? NULL : value;
+        SkipNode<K, V>[] preds = newNodeArray();
+        SkipNode<K, V>[] succs = newNodeArray();
+        while (true) {
+            if (find(key, preds, succs)) {
+                SkipNode<K, V> node = succs[0];
+                Object old = node.value;
+                if (old == DELETED) {
+                    markLinks(node); // Helps the remover along, then looks again
+                } else if (VALUE.compareAndSet(node, old, masked)) {
+                    return;
+                }
+                continue;
+            }
+
+            int height = randomHeight();
+            SkipNode<K, V> node = new SkipNode<>(key, masked, height);
+            for (int level = 0; level < height; level++) {
+                node.next[level] = succs[level]; // Published by the CAS below
+            }
+            if (!casLink(preds[0], 0, succs[0], node)) {
+                continue; // The bottom list changed around KEY; start over
+            }
+            size.incrementAndGet();
+            linkUpperLevels(node, preds, succs);
+            return;
+        }
+    }
+
+    /**
+     * Links NODE, which is in the bottom list, into the upper lists it was
+     * given. Stops early if a remover has marked it meanwhile.
+     */
+    private void linkUpperLevels(SkipNode<K, V> node, SkipNode<K, V>[] preds,
+                                 SkipNode<K, V>[] succs) {
+        for (int level = 1; level < node.next.length; level++) {
+            while (!casLink(preds[level], level, succs[level], node)) {
+                find(node.key, preds, succs);
+                Object expected = link(node, level);
+                if (expected instanceof Marked || !casLink(node, level, expected, succs[level])) {
+                    return; // Marked: the node is being removed, so don't index it further
+                }
+            }
+        }
+        if (node.value == DELETED) {
+            find(node.key, preds, succs); // It may have been removed while being linked
+        }
+    }
+
+    /** Marks every link of NODE, top level first, so nothing can be linked after it. */
+    private static <K, V> void markLinks(SkipNode<K, V> node) {
+        for (int level = node.next.length - 1; level >= 0; level--) {
+            Object link = link(node, level);
+            while (!(link instanceof Marked)
+                    && !casLink(node, level, link, new Marked(target(link)))) {
+                link = link(node, level);
+            }
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        return removeIf(key, false, null);
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        return removeIf(key, true, value);
+    }
+
+    /** Returns an array for the predecessors or successors of a key on every level. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K, V> SkipNode<K, V>[] newNodeArray() {
+        return new SkipNode[MAX_LEVEL];
+    }
+
+    /**
+     * Removes KEY if it is present and, when MATCH is true, mapped to VALUE.
+     * Returns the removed value, or null if nothing was removed.
+     */
+    private V removeIf(K key, boolean match, V value) {
+        SkipNode<K, V> node = findNode(key);
+        if (node == null) {
+            return null;
+        }
+        Object old;
+        do {
+            old = node.value;
+            if (old == DELETED || (match && !Objects.equals(unmask(old), value))) {
+                return null;
+            }
+        } while (!VALUE.compareAndSet(node, old, DELETED));
+        size.decrementAndGet();
+        markLinks(node);
+        find(key, newNodeArray(), newNodeArray()); // Unlinks it everywhere
+        return unmask(old);
+    }
+
+    /** Removes every key; keys put during the call may or may not remain. */
+    @Override
+    public void clear() {
+        for (K key : this) {
+            remove(key);
+        }
+    }
+
+    /* ---------------------- Ordered views ---------------------- */
+
+    /** Returns a view of the entries whose keys are less than TOKEY. */
+    public Map61B<K, V> headMap(K toKey) {
+        return new SubMap(null, Objects.requireNonNull(toKey));
+    }
+
+    /** Returns a view of the entries whose keys are greater than or equal to FROMKEY. */
+    public Map61B<K, V> tailMap(K fromKey) {
+        return new SubMap(Objects.requireNonNull(fromKey), null);
+    }
+
+    /** Returns a view of the entries whose keys are in [FROMKEY, TOKEY). */
+    public Map61B<K, V> subMap(K fromKey, K toKey) {
+        if (fromKey.compareTo(toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return new SubMap(fromKey, toKey);
+    }
+
+    /**
+     * The entries of this map whose keys are in [lo, hi), where a null bound
+     * means unbounded. Reads and writes go straight to the skip list. Putting
+     * a key outside the range throws an IllegalArgumentException. size()
+     * counts the keys in range, so it takes time linear in their number.
+     */
+    private class SubMap implements Map61B<K, V> {
+        private final K lo;
+        private final K hi;
+
+        SubMap(K lo, K hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        private boolean inRange(K key) {
+            return key != null && (lo == null || key.compareTo(lo) >= 0)
+                    && (hi == null || key.compareTo(hi) < 0);
+        }
+
+        @Override
+        public void clear() {
+            for (K key : this) {
+                SkipListMap.this.remove(key);
+            }
+        }
+
+        @Override
+        public boolean containsKey(K key) {
+            return inRange(key) && SkipListMap.this.containsKey(key);
+        }
+
+        @Override
+        public V get(K key) {
+            return inRange(key) ? SkipListMap.this.get(key) : null;
+        }
+
+        @Override
+        public int size() {
+            int count = 0;
+            for (Iterator<K> it = iterator(); it.hasNext(); it.next()) {
+                count++;
+            }
+            return count;
+        }
+
+        @Override
+        public void put(K key, V value) {
+            if (key != null && !inRange(key)) {
+                throw new IllegalArgumentException("key out of range: " + key);
+            }
+            SkipListMap.this.put(key, value);
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return new KeySet(this);
+        }
+
+        @Override
+        public V remove(K key) {
+            return inRange(key) ? SkipListMap.this.remove(key) : null;
+        }
+
+        @Override
+        public V remove(K key, V value) {
+            return inRange(key) ? SkipListMap.this.remove(key, value) : null;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return new KeyIterator(lo, hi);
+        }
+    }
+
+    /** Returns a live view of the keys in increasing order. */
+    @Override
+    public Set<K> keySet() {
+        return new KeySet(this);
+    }
+
+    /** The keys of MAP, which is this map or one of its views. */
+    private class KeySet extends AbstractSet<K> {
+        private final Map61B<K, V> map;
+
+        KeySet(Map61B<K, V> map) {
+            this.map = map;
+        }
+
+        @Override
+        public Iterator<K> iterator() {
+            return map.iterator();
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            try {
+                return map.containsKey((K) o);
+            } catch (ClassCastException e) {
+                return false; // a key that compareTo can't handle
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            try {
+                if (!map.containsKey((K) o)) {
+                    return false;
+                }
+                map.remove((K) o);
+                return true;
+            } catch (ClassCastException e) {
+                return false; // a key that compareTo can't handle
+            }
+        }
+    }
+
+    /** Returns an iterator over the keys in increasing order. */
+    @Override
+    public Iterator<K> iterator() {
+        return new KeyIterator(null, null);
+    }
+
+    /** Walks the bottom list over the keys in [lo, hi), skipping removed ones. */
+    private class KeyIterator implements Iterator<K> {
+        private final K hi;
+        /** The node of the next key, read as present */
+        private SkipNode<K, V> next;
+
+        KeyIterator(K lo, K hi) {
+            this.hi = hi;
+            next = ceilingNode(lo);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null && (hi == null || next.key.compareTo(hi) < 0);
+        }
+
+        @Override
+        public K next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            K key = next.key;
+            do {
+                next = target(link(next, 0));
+            } while (next != null && next.value == DELETED);
+            return key;
+        }
+    }
+}
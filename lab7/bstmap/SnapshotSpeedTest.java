@@ -0,0 +1,87 @@
+package bstmap;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.Scanner;
+import edu.princeton.cs.algs4.Stopwatch;
+
+/**
+ * Compares two ways of giving a reader a point-in-time copy of a map of N
+ * entries while a writer keeps changing it: copying a balanced BSTMap entry
+ * by entry, and taking a PersistentBSTMap snapshot. Also times the puts
+ * of both maps, since path copying allocates O(log N) nodes per put.
+ */
+public class SnapshotSpeedTest {
+    /** Number of snapshots taken, with one put between every two. */
+    private static final int SNAPSHOTS = 100;
+
+    /**
+     * Requests user input and prints the times of each approach.
+     * ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("This program fills maps with N random Integers, then takes "
+                + SNAPSHOTS + " point-in-time copies of each.");
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter N, the number of entries: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            timeSnapshots(N);
+
+            System.out.print("Would you like to try more timed-tests? (y/n): ");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Fills a BSTMap and a PersistentBSTMap with N entries and times puts and copies of each. */
+    public static void timeSnapshots(int N) {
+        Random random = new Random(61);
+        int[] keys = new int[N];
+        for (int i = 0; i < N; i++) {
+            keys[i] = random.nextInt();
+        }
+
+        BSTMap<Integer, Integer> tree = new BSTMap<>(true);
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < N; i++) {
+            tree.put(keys[i], i);
+        }
+        double treePuts = sw.elapsedTime();
+
+        PersistentBSTMap<Integer, Integer> persistent = new PersistentBSTMap<>();
+        sw = new Stopwatch();
+        for (int i = 0; i < N; i++) {
+            persistent.put(keys[i], i);
+        }
+        double persistentPuts = sw.elapsedTime();
+
+        long sum = 0;
+        sw = new Stopwatch();
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            tree.put(keys[i % N], -i);
+            BSTMap<Integer, Integer> copy = new BSTMap<>(true);
+            for (int key : tree) {
+                copy.put(key, tree.get(key));
+            }
+            sum += copy.size();
+        }
+        double treeCopies = sw.elapsedTime();
+
+        sw = new Stopwatch();
+        for (int i = 0; i < SNAPSHOTS; i++) {
+            persistent.put(keys[i % N], -i);
+            PersistentBSTMap<Integer, Integer> snapshot = persistent.snapshot();
+            sum += snapshot.size();
+        }
+        double snapshots = sw.elapsedTime();
+
+        System.out.printf("balanced BSTMap: %.2f sec for %d puts, %.2f sec for %d copies\n",
+                treePuts, N, treeCopies, SNAPSHOTS);
+        System.out.printf("PersistentBSTMap: %.2f sec for %d puts, %.4f sec for %d snapshots"
+                + " (checksum %d)\n", persistentPuts, N, snapshots, SNAPSHOTS, sum);
+    }
+}
@@ -0,0 +1,346 @@
+package bstmap;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A map from Strings, stored as a ternary search trie (Sedgewick and Wayne,
+ * Algorithms 5.2). Each node holds one character and three links: keys whose
+ * character at this position is smaller, equal (continuing with the next
+ * character) and larger. A lookup compares one char per node and looks at
+ * each character of the key about once, instead of comparing whole Strings at
+ * every level as BSTMap does or hashing the whole key as a hash map does. A
+ * miss usually stops after the first few characters.
+ *
+ * Keys that share a prefix share the nodes of that prefix, so keysWithPrefix
+ * and longestPrefixOf only visit the nodes below or along the prefix, rather
+ * than scanning every key.
+ *
+ * Iteration is in String.compareTo order. A map could have an entry whose
+ * value equals null, and "" is a valid key. Null keys are ignored.
+ */
+public class TSTMap<V> implements Map61B<String, V> {
+    /** A trie node: the character C of some keys, and a value if a key ends here. */
+    private static final class TSTNode<V> {
+        final char c;
+        TSTNode<V> left;
+        TSTNode<V> mid;
+        TSTNode<V> right;
+        /** Whether a key ends at this node */
+        boolean hasValue;
+        V value;
+
+        TSTNode(char c) {
+            this.c = c;
+        }
+    }
+
+    private TSTNode<V> root;
+    /** The empty key has no character, so its entry is kept outside the trie */
+    private boolean hasEmptyKey;
+    private V emptyKeyValue;
+    private int size;
+
+    /** Creates an empty map. */
+    public TSTMap() {
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        hasEmptyKey = false;
+        emptyKeyValue = null;
+        size = 0;
+    }
+
+    /** Returns the node of the last character of KEY, or null if no key starts with KEY. */
+    private TSTNode<V> findNode(String key) {
+        TSTNode<V> node = root;
+        int d = 0;
+        while (node != null) {
+            char c = key.charAt(d);
+            if (c < node.c) {
+                node = node.left;
+            } else if (c > node.c) {
+                node = node.right;
+            } else if (d < key.length() - 1) {
+                node = node.mid;
+                d++;
+            } else {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        if (key == null) {
+            return false;
+        } else if (key.isEmpty()) {
+            return hasEmptyKey;
+        }
+        TSTNode<V> node = findNode(key);
+        return node != null && node.hasValue;
+    }
+
+    @Override
+    public V get(String key) {
+        if (key == null) {
+            return null;
+        } else if (key.isEmpty()) {
+            return emptyKeyValue;
+        }
+        TSTNode<V> node = findNode(key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void put(String key, V value) {
+        if (key == null) {
+            return;
+        }
+        if (key.isEmpty()) {
+            if (!hasEmptyKey) {
+                hasEmptyKey = true;
+                size += 1;
+            }
+            emptyKeyValue = value;
+            return;
+        }
+
+        // Walks down as far as the trie already goes, creating the rest of the path
+        if (root == null) {
+            root = new TSTNode<>(key.charAt(0));
+        }
+        TSTNode<V> node = root;
+        int d = 0;
+        while (true) {
+            char c = key.charAt(d);
+            if (c < node.c) {
+                if (node.left == null) {
+                    node.left = new TSTNode<>(c);
+                }
+                node = node.left;
+            } else if (c > node.c) {
+                if (node.right == null) {
+                    node.right = new TSTNode<>(c);
+                }
+                node = node.right;
+            } else if (d < key.length() - 1) {
+                d++;
+                if (node.mid == null) {
+                    node.mid = new TSTNode<>(key.charAt(d));
+                }
+                node = node.mid;
+            } else {
+                break;
+            }
+        }
+        if (!node.hasValue) {
+            node.hasValue = true;
+            size += 1;
+        }
+        node.value = value;
+    }
+
+    @Override
+    public V remove(String key) {
+        if (!containsKey(key)) {
+            return null;
+        }
+        if (key.isEmpty()) {
+            V value = emptyKeyValue;
+            hasEmptyKey = false;
+            emptyKeyValue = null;
+            size -= 1;
+            return value;
+        }
+
+        // Records the path, so that nodes left with no key and no children can be cut off
+        List<TSTNode<V>> path = new ArrayList<>();
+        TSTNode<V> node = root;
+        int d = 0;
+        while (true) {
+            path.add(node);
+            char c = key.charAt(d);
+            if (c < node.c) {
+                node = node.left;
+            } else if (c > node.c) {
+                node = node.right;
+            } else if (d < key.length() - 1) {
+                node = node.mid;
+                d++;
+            } else {
+                break;
+            }
+        }
+        V value = node.value;
+        node.hasValue = false;
+        node.value = null;
+        size -= 1;
+
+        for (int i = path.size() - 1; i >= 0; i--) {
+            TSTNode<V> child = path.get(i);
+            if (child.hasValue || child.left != null || child.mid != null || child.right != null) {
+                break;
+            }
+            if (i == 0) {
+                root = null;
+            } else {
+                TSTNode<V> parent = path.get(i - 1);
+                if (parent.left == child) {
+                    parent.left = null;
+                } else if (parent.mid == child) {
+                    parent.mid = null;
+                } else {
+                    parent.right = null;
+                }
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public V remove(String key, V value) {
+        if (!containsKey(key) || !Objects.equals(get(key), value)) {
+            return null;
+        }
+        remove(key);
+        return value;
+    }
+
+    /* ---------------------- Prefix queries ---------------------- */
+
+    /**
+     * Returns the keys that start with PREFIX in increasing order. Takes time
+     * proportional to the length of PREFIX plus the size of the part of the
+     * trie below it, however many other keys there are.
+     */
+    public Iterable<String> keysWithPrefix(String prefix) {
+        List<String> keys = new ArrayList<>();
+        if (prefix.isEmpty()) {
+            if (hasEmptyKey) {
+                keys.add("");
+            }
+            collect(root, new StringBuilder(), keys);
+            return keys;
+        }
+        TSTNode<V> node = findNode(prefix);
+        if (node == null) {
+            return keys;
+        }
+        if (node.hasValue) {
+            keys.add(prefix);
+        }
+        collect(node.mid, new StringBuilder(prefix), keys);
+        return keys;
+    }
+
+    /**
+     * Adds to KEYS, in increasing order, every key below NODE, each of them
+     * PREFIX followed by the characters on its path. Recurses once per
+     * node on the path, so the depth is at most the length of the longest
+     * key plus the depth of the sibling trees along it.
+     */
+    private void collect(TSTNode<V> node, StringBuilder prefix, List<String> keys) {
+        if (node == null) {
+            return;
+        }
+        collect(node.left, prefix, keys);
+        prefix.append(node.c);
+        if (node.hasValue) {
+            keys.add(prefix.toString());
+        }
+        collect(node.mid, prefix, keys);
+        prefix.setLength(prefix.length() - 1);
+        collect(node.right, prefix, keys);
+    }
+
+    /**
+     * Returns the longest key that is a prefix of QUERY, or null if there is
+     * none. Looks at each character of QUERY at most once.
+     */
+    public String longestPrefixOf(String query) {
+        int length = hasEmptyKey ? 0 : -1;
+        TSTNode<V> node = root;
+        int d = 0;
+        while (node != null && d < query.length()) {
+            char c = query.charAt(d);
+            if (c < node.c) {
+                node = node.left;
+            } else if (c > node.c) {
+                node = node.right;
+            } else {
+                d++;
+                if (node.hasValue) {
+                    length = d;
+                }
+                node = node.mid;
+            }
+        }
+        return length < 0 ? null : query.substring(0, length);
+    }
+
+    /** Returns a live view of the keys in increasing order. */
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<String> iterator() {
+                return TSTMap.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String && containsKey((String) o);
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the keys in increasing order, as they are when
+     * it is created. Its remove removes the last key returned from the map.
+     */
+    @Override
+    public Iterator<String> iterator() {
+        Iterator<String> keys = keysWithPrefix("").iterator();
+        return new Iterator<>() {
+            private String last;
+
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public String next() {
+                last = keys.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                TSTMap.this.remove(last);
+                last = null;
+            }
+        };
+    }
+}
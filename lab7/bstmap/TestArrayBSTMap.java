@@ -0,0 +1,98 @@
+package bstmap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of the array-backed BST, checked against java.util.TreeMap. */
+public class TestArrayBSTMap {
+
+    @Test
+    public void sanityTest() {
+        ArrayBSTMap<String, Integer> b = new ArrayBSTMap<>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, 1 + i);
+            assertEquals(i + 1, b.size());
+            assertEquals(1 + i, (int) b.get("hi" + i));
+        }
+        assertFalse(b.containsKey("starfish"));
+        b.put("hi0", -1);
+        b.put("nothing", null);
+        assertEquals(456, b.size());
+        assertEquals(-1, (int) b.get("hi0"));
+        assertTrue(b.containsKey("nothing"));
+        assertNull(b.remove("hi1", 1));
+        assertEquals(2, (int) b.remove("hi1", 2));
+        assertEquals(455, b.size());
+        b.clear();
+        assertEquals(0, b.size());
+        assertFalse(b.iterator().hasNext());
+    }
+
+    /* Random puts and removes, checked against TreeMap. */
+    @Test
+    public void randomizedTest() {
+        ArrayBSTMap<Integer, Integer> b = new ArrayBSTMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 50000; i++) {
+            int key = r.nextInt(2000);
+            if (r.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), b.remove(key));
+            } else {
+                expected.put(key, i);
+                b.put(key, i);
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        for (int key = -1; key <= 2000; key++) {
+            assertEquals(expected.get(key), b.get(key));
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), toList(b.iterator()));
+        assertEquals(expected.keySet(), b.keySet());
+    }
+
+    /* Removed slots are reused before the arrays grow, and trimToSize compacts them. */
+    @Test
+    public void testFreeListAndTrim() {
+        ArrayBSTMap<Integer, Integer> b = new ArrayBSTMap<>(1024);
+        for (int i = 0; i < 1024; i++) {
+            b.put(i * 7919 % 1024, i);
+        }
+        assertEquals(1024, b.capacity());
+        for (int i = 0; i < 1024; i += 2) {
+            b.remove(i);
+        }
+        for (int i = 1024; i < 1536; i++) {
+            b.put(i, i);
+        }
+        assertEquals(1024, b.size());
+        assertEquals(1024, b.capacity());
+
+        for (int i = 0; i < 1536; i += 3) {
+            b.remove(i);
+        }
+        int n = b.size();
+        List<Integer> keys = toList(b.iterator());
+        b.trimToSize();
+        assertEquals(n, b.capacity());
+        assertEquals(keys, toList(b.iterator()));
+        assertEquals(32 - Integer.numberOfLeadingZeros(n), b.height());
+        for (int key : keys) {
+            assertTrue(b.containsKey(key));
+        }
+        b.put(-1, -1);
+        assertEquals(n + 1, b.size());
+        assertEquals(-1, (int) b.get(-1));
+    }
+
+    private static <T> List<T> toList(Iterator<T> iterator) {
+        List<T> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+}
@@ -1,7 +1,13 @@
 package bstmap;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.TreeMap;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
@@ -124,4 +130,393 @@ public class TestBSTMapExtra {
         assertEquals(null, noChild.get('Z'));
     }
 
+    /* Putting an existing key updates its value without growing the map. */
+    @Test
+    public void testPutExistingKeepsSize() {
+        for (boolean balanced : new boolean[] {false, true}) {
+            BSTMap<String, Integer> b = new BSTMap<>(balanced);
+            b.put("a", 1);
+            b.put("a", 2);
+            assertEquals(1, b.size());
+            assertEquals(2, (int) b.get("a"));
+            assertNull(b.remove("b"));
+            assertEquals(1, b.size());
+        }
+    }
+
+    /* A balanced map stays below 2 lg N for sorted, reverse-sorted and random keys. */
+    @Test
+    public void testBalancedHeight() {
+        int n = 100000;
+        List<Integer> random = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            random.add(i);
+        }
+        Collections.shuffle(random, new Random(61));
+        for (int order = 0; order < 3; order++) {
+            BSTMap<Integer, Integer> b = new BSTMap<>(true);
+            for (int i = 0; i < n; i++) {
+                int key = order == 0 ? i : order == 1 ? n - i : random.get(i);
+                b.put(key, i);
+            }
+            assertEquals(n, b.size());
+            assertTrue(b.height() <= 2 * (32 - Integer.numberOfLeadingZeros(n)));
+            assertRedBlack(b.root);
+        }
+    }
+
+    /* Random puts and removes on a balanced map, checked against TreeMap. */
+    @Test
+    public void testBalancedRemove() {
+        BSTMap<Integer, Integer> b = new BSTMap<>(true);
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 20000; i++) {
+            int key = r.nextInt(2000);
+            if (r.nextInt(2) == 0) {
+                assertEquals(expected.remove(key), b.remove(key));
+            } else {
+                expected.put(key, i);
+                b.put(key, i);
+            }
+            assertEquals(expected.size(), b.size());
+            if (i % 1000 == 0) {
+                assertRedBlack(b.root);
+            }
+        }
+        for (int key = 0; key < 2000; key++) {
+            assertEquals(expected.get(key), b.get(key));
+        }
+        for (int key : new ArrayList<>(expected.keySet())) {
+            b.remove(key);
+        }
+        assertEquals(0, b.size());
+        assertNull(b.root);
+    }
+
+    /**
+     * Checks the left-leaning red-black invariants below NODE: keys in order,
+     * no red right links, no two reds in a row and the same number of black
+     * links on every path. Returns that number.
+     */
+    private static <K extends Comparable<K>> int assertRedBlack(Node<K, ?> node) {
+        if (node == null) {
+            return 0;
+        }
+        Node<K, ?> left = node.getLeft();
+        Node<K, ?> right = node.getRight();
+        assertFalse(right != null && right.isRed());
+        assertFalse(node.isRed() && left != null && left.isRed());
+        assertTrue(left == null || left.getKey().compareTo(node.getKey()) < 0);
+        assertTrue(right == null || right.getKey().compareTo(node.getKey()) > 0);
+        int blackHeight = assertRedBlack(left);
+        assertEquals(blackHeight, assertRedBlack(right));
+        return blackHeight + (node.isRed() ? 0 : 1);
+    }
+
+    /*
+     * A tree a million nodes deep, built directly as one right spine, must work
+     * with every operation without overflowing the stack.
+     */
+    @Test
+    public void testDegenerateTree() {
+        int n = 1000000;
+        BSTMap<Integer, Integer> b = new BSTMap<>();
+        Node<Integer, Integer> spine = null;
+        for (int i = n - 1; i >= 0; i--) {
+            Node<Integer, Integer> node = new Node<>(i, i);
+            node.setRight(spine);
+            node.setSize(n - i);
+            spine = node;
+        }
+        b.root = spine;
+        b.size = n;
+
+        assertEquals(n, b.height());
+        assertTrue(b.containsKey(n - 1));
+        assertEquals(n - 2, (int) b.get(n - 2));
+        b.put(n, n);
+        assertEquals(n + 1, b.size());
+        assertEquals(n - 1, (int) b.remove(n - 1));
+        assertEquals(n, (int) b.remove(n));
+        assertEquals(0, (int) b.remove(0));
+        int expected = 1;
+        for (int key : b) {
+            assertEquals(expected++, key);
+        }
+        assertEquals(n - 1, expected);
+        assertEquals(n - 2, b.rank(n - 1));
+        assertEquals(n - 2, (int) b.select(n - 3));
+    }
+
+    /* The iterator visits keys in increasing order, after removals too. */
+    @Test
+    public void testIteratorOrder() {
+        for (boolean balanced : new boolean[] {false, true}) {
+            BSTMap<Integer, Integer> b = new BSTMap<>(balanced);
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            Random r = new Random(61);
+            for (int i = 0; i < 5000; i++) {
+                int key = r.nextInt(1000);
+                if (r.nextInt(3) == 0) {
+                    b.remove(key);
+                    expected.remove(key);
+                } else {
+                    b.put(key, i);
+                    expected.put(key, i);
+                }
+            }
+            Iterator<Integer> keys = b.iterator();
+            for (int key : expected.keySet()) {
+                assertTrue(keys.hasNext());
+                assertEquals(key, (int) keys.next());
+            }
+            assertFalse(keys.hasNext());
+        }
+    }
+
+    /*
+     * floorKey, ceilingKey, rank, select and the range views agree with
+     * TreeMap after random puts and removes, for plain and balanced maps.
+     */
+    @Test
+    public void testOrderedOperations() {
+        for (boolean balanced : new boolean[] {false, true}) {
+            BSTMap<Integer, Integer> b = new BSTMap<>(balanced);
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            Random r = new Random(61);
+            for (int i = 0; i < 5000; i++) {
+                int key = 2 * r.nextInt(1000); // even keys only, so odd ones are absent
+                if (r.nextInt(3) == 0) {
+                    b.remove(key);
+                    expected.remove(key);
+                } else {
+                    b.put(key, i);
+                    expected.put(key, i);
+                }
+            }
+            assertSizes(b.root);
+            for (int key = -1; key <= 2001; key++) {
+                assertEquals(expected.floorKey(key), b.floorKey(key));
+                assertEquals(expected.ceilingKey(key), b.ceilingKey(key));
+                assertEquals(expected.headMap(key).size(), b.rank(key));
+            }
+            int rank = 0;
+            for (int key : expected.keySet()) {
+                assertEquals(key, (int) b.select(rank++));
+            }
+
+            Map61B<Integer, Integer> window = b.subMap(501, 1500);
+            assertEquals(expected.subMap(501, 1500).size(), window.size());
+            assertEquals(expected.subMap(501, 1500).keySet(), window.keySet());
+            assertEquals(expected.headMap(700).keySet(), b.headMap(700).keySet());
+            assertEquals(expected.tailMap(700).keySet(), b.tailMap(700).keySet());
+            assertNull(window.get(1600));
+
+            // Views write through, and see later writes
+            window.put(777, -1);
+            expected.put(777, -1);
+            assertEquals(-1, (int) b.get(777));
+            b.put(1001, -2);
+            expected.put(1001, -2);
+            assertTrue(window.containsKey(1001));
+            window.clear();
+            expected.subMap(501, 1500).clear();
+            assertEquals(0, window.size());
+            assertEquals(expected.size(), b.size());
+            assertEquals(expected.keySet(), b.keySet());
+            assertSizes(b.root);
+        }
+    }
+
+    /*
+     * Removing through keySet iterators, removeIf and retainAll removes from
+     * the map, for whole-map and range views of plain and balanced maps.
+     */
+    @Test
+    public void testKeySetIteratorRemove() {
+        for (boolean balanced : new boolean[] {false, true}) {
+            BSTMap<Integer, Integer> b = new BSTMap<>(balanced);
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            Random r = new Random(13);
+            for (int i = 0; i < 2000; i++) {
+                int key = r.nextInt(5000);
+                b.put(key, i);
+                expected.put(key, i);
+            }
+            Iterator<Integer> it = b.keySet().iterator();
+            assertThrows(IllegalStateException.class, it::remove);
+            while (it.hasNext()) {
+                if (it.next() % 3 == 0) {
+                    it.remove();
+                    assertThrows(IllegalStateException.class, it::remove);
+                }
+            }
+            expected.keySet().removeIf(k -> k % 3 == 0);
+            assertEquals(expected.keySet(), b.keySet());
+            assertSizes(b.root);
+
+            assertTrue(b.subMap(1000, 3000).keySet().removeIf(k -> k % 2 == 0));
+            expected.subMap(1000, 3000).keySet().removeIf(k -> k % 2 == 0);
+            assertTrue(b.headMap(500).keySet().retainAll(Set.of(1, 7, 499)));
+            expected.headMap(500).keySet().retainAll(Set.of(1, 7, 499));
+            assertEquals(expected.keySet(), b.keySet());
+            assertEquals(expected.size(), b.size());
+            assertSizes(b.root);
+        }
+    }
+
+    /*
+     * Re-putting every key leaves size and the subtree counts alone, and
+     * countRange and percentile agree with a sorted list of the keys.
+     */
+    @Test
+    public void testCountRangeAndPercentile() {
+        for (boolean balanced : new boolean[] {false, true}) {
+            BSTMap<Integer, Integer> b = new BSTMap<>(balanced);
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            Random r = new Random(61);
+            for (int i = 0; i < 3000; i++) {
+                int key = 2 * r.nextInt(1000);
+                b.put(key, i);
+                expected.put(key, i);
+            }
+            for (int key : expected.keySet()) {
+                b.put(key, -key);
+            }
+            assertEquals(expected.size(), b.size());
+            assertSizes(b.root);
+
+            for (int lo = -1; lo <= 2001; lo += 37) {
+                for (int hi = lo - 10; hi <= 2001; hi += 101) {
+                    int count = lo > hi ? 0 : expected.subMap(lo, true, hi, true).size();
+                    assertEquals(count, b.countRange(lo, hi));
+                }
+            }
+
+            List<Integer> sorted = new ArrayList<>(expected.keySet());
+            for (int p = 0; p <= 100; p++) {
+                int rank = Math.max((int) Math.ceil(p / 100.0 * sorted.size()) - 1, 0);
+                assertEquals(sorted.get(rank), b.percentile(p));
+            }
+            assertEquals(sorted.get(0), b.percentile(0));
+            assertEquals(sorted.get(sorted.size() - 1), b.percentile(100));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentileOfEmptyMap() {
+        new BSTMap<Integer, Integer>().percentile(50);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutOutsideView() {
+        BSTMap<Integer, Integer> b = new BSTMap<>();
+        b.headMap(10).put(10, 1);
+    }
+
+    /* remove(K, V) only removes an entry that still has the given value. */
+    @Test
+    public void testRemoveKeyValue() {
+        BSTMap<String, Integer> b = new BSTMap<>();
+        b.put("a", 1);
+        assertNull(b.remove("a", 2));
+        assertEquals(1, b.size());
+        assertEquals(1, (int) b.remove("a", 1));
+        assertEquals(0, b.size());
+    }
+
+    /* fromSorted builds a minimum-height plain tree or a valid red-black tree of any size. */
+    @Test
+    public void testFromSorted() {
+        for (int n = 0; n < 300; n++) {
+            List<Integer> keys = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                keys.add(2 * i);
+            }
+            BSTMap<Integer, Integer> plain = BSTMap.fromSorted(keys.iterator(), keys.iterator());
+            BSTMap<Integer, Integer> balanced =
+                    BSTMap.fromSorted(keys.iterator(), keys.iterator(), true);
+            for (BSTMap<Integer, Integer> b : List.of(plain, balanced)) {
+                assertEquals(n, b.size());
+                assertSizes(b.root);
+                assertEquals(keys, toList(b.iterator()));
+                for (int key : keys) {
+                    assertEquals(key, (int) b.get(key));
+                }
+            }
+            assertEquals(32 - Integer.numberOfLeadingZeros(n), plain.height());
+            assertFalse(balanced.root != null && balanced.root.isRed());
+            assertRedBlack(balanced.root);
+
+            // Later puts and removes keep the bulk-built tree red-black
+            balanced.put(2 * n + 1, 0);
+            balanced.put(-1, 0);
+            balanced.remove(0);
+            assertRedBlack(balanced.root);
+            assertSizes(balanced.root);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromSortedRejectsUnsorted() {
+        List<Integer> keys = List.of(1, 3, 3);
+        BSTMap.fromSorted(keys.iterator(), keys.iterator());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromSortedRejectsMissingValues() {
+        BSTMap.fromSorted(List.of(1, 2).iterator(), List.of(1).iterator());
+    }
+
+    /* merge rebuilds the tree from both maps' entries, and the other map's values win. */
+    @Test
+    public void testMerge() {
+        for (boolean isBalanced : new boolean[] {false, true}) {
+            BSTMap<Integer, Integer> b = new BSTMap<>(isBalanced);
+            BSTMap<Integer, Integer> other = new BSTMap<>();
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            Random r = new Random(61);
+            for (int i = 0; i < 1000; i++) {
+                int key = r.nextInt(1500);
+                b.put(key, -key);
+                expected.put(key, -key);
+            }
+            for (int i = 0; i < 1000; i++) {
+                int key = r.nextInt(1500);
+                other.put(key, key);
+            }
+            for (int key : other) {
+                expected.put(key, key);
+            }
+            b.merge(other);
+            b.merge(new BSTMap<>());
+            assertEquals(expected.size(), b.size());
+            assertEquals(new ArrayList<>(expected.keySet()), toList(b.iterator()));
+            for (int key : expected.keySet()) {
+                assertEquals(expected.get(key), b.get(key));
+            }
+            assertSizes(b.root);
+            assertTrue(b.height() <= 2 * 32 - 2 * Integer.numberOfLeadingZeros(b.size()));
+            if (isBalanced) {
+                assertRedBlack(b.root);
+            }
+        }
+    }
+
+    private static <T> List<T> toList(Iterator<T> iterator) {
+        List<T> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+
+    /** Checks that every node below NODE counts its subtree, and returns the count. */
+    private static int assertSizes(Node<?, ?> node) {
+        if (node == null) {
+            return 0;
+        }
+        int size = 1 + assertSizes(node.getLeft()) + assertSizes(node.getRight());
+        assertEquals(size, node.getSize());
+        return size;
+    }
 }
@@ -0,0 +1,135 @@
+package bstmap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of the B+ tree map, checked against java.util.TreeMap. */
+public class TestBTreeMap {
+
+    @Test
+    public void sanityTest() {
+        BTreeMap<String, Integer> b = new BTreeMap<>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, 1 + i);
+            assertEquals(i + 1, b.size());
+            assertEquals(1 + i, (int) b.get("hi" + i));
+            assertTrue(b.containsKey("hi" + i));
+        }
+        assertNull(b.get("starfish"));
+        assertFalse(b.containsKey("starfish"));
+        b.put("hi0", 61);
+        assertEquals(455, b.size());
+        assertEquals(61, (int) b.get("hi0"));
+        b.put("nothing", null);
+        assertTrue(b.containsKey("nothing"));
+        assertNull(b.get("nothing"));
+        b.clear();
+        assertEquals(0, b.size());
+        assertFalse(b.containsKey("hi1"));
+        assertFalse(b.iterator().hasNext());
+    }
+
+    /**
+     * Random puts and removes with the smallest pages, so that pages split,
+     * borrow and merge many times at every level.
+     */
+    @Test
+    public void randomizedTest() {
+        for (int order : new int[] {3, 4, 5, 64}) {
+            BTreeMap<Integer, Integer> b = new BTreeMap<>(order);
+            TreeMap<Integer, Integer> expected = new TreeMap<>();
+            Random r = new Random(61);
+            for (int i = 0; i < 20000; i++) {
+                int key = r.nextInt(2000);
+                if (r.nextInt(3) == 0) {
+                    assertEquals(expected.remove(key), b.remove(key));
+                } else {
+                    expected.put(key, i);
+                    b.put(key, i);
+                }
+                assertEquals(expected.size(), b.size());
+            }
+            for (int key = 0; key < 2000; key++) {
+                assertEquals(expected.get(key), b.get(key));
+            }
+            assertEquals(new ArrayList<>(expected.keySet()), toList(b.iterator()));
+            assertEquals(expected.keySet(), b.keySet());
+        }
+    }
+
+    /** Removing everything must leave a single empty leaf that can be refilled. */
+    @Test
+    public void testRemoveAll() {
+        BTreeMap<Integer, Integer> b = new BTreeMap<>(3);
+        for (int i = 0; i < 1000; i++) {
+            b.put(i, i);
+        }
+        assertTrue(b.height() > 5);
+        for (int i = 999; i >= 0; i -= 2) {
+            assertEquals(i, (int) b.remove(i));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(i, (int) b.remove(i));
+        }
+        assertEquals(0, b.size());
+        assertEquals(1, b.height());
+        assertFalse(b.iterator().hasNext());
+        b.put(7, 7);
+        assertEquals(7, (int) b.get(7));
+    }
+
+    /** In-order keys fill pages from the left, but the height stays logarithmic. */
+    @Test
+    public void testHeight() {
+        BTreeMap<Integer, Integer> b = new BTreeMap<>(4);
+        for (int i = 0; i < 100000; i++) {
+            b.put(i, i);
+        }
+        // Every page but the root holds at least 2 keys, so height <= 1 + log2(N)
+        assertTrue(b.height() <= 18);
+        assertEquals(1, new BTreeMap<Integer, Integer>().height());
+    }
+
+    @Test
+    public void testKeysInRange() {
+        BTreeMap<Integer, Integer> b = new BTreeMap<>(4);
+        for (int i = 0; i < 100; i += 2) {
+            b.put(i, i);
+        }
+        List<Integer> keys = new ArrayList<>();
+        for (int key : b.keys(9, 21)) {
+            keys.add(key);
+        }
+        assertEquals(List.of(10, 12, 14, 16, 18, 20), keys);
+        assertEquals(List.of(10), toList(b.keys(10, 11).iterator()));
+        assertEquals(List.of(), toList(b.keys(11, 11).iterator()));
+        assertEquals(List.of(96, 98), toList(b.keys(95, 1000).iterator()));
+        assertEquals(List.of(), toList(b.keys(99, 1000).iterator()));
+    }
+
+    @Test
+    public void testRemoveKeyValue() {
+        BTreeMap<String, Integer> b = new BTreeMap<>();
+        b.put("a", 1);
+        assertNull(b.remove("a", 2));
+        assertEquals(1, (int) b.remove("a", 1));
+        assertNull(b.remove("a"));
+        assertEquals(0, b.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTinyOrder() {
+        new BTreeMap<String, Integer>(2);
+    }
+
+    private static <T> List<T> toList(Iterator<T> iterator) {
+        List<T> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+}
@@ -0,0 +1,180 @@
+package bstmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of the path-copying map and its snapshots. */
+public class TestPersistentBSTMap {
+
+    @Test
+    public void sanityTest() {
+        PersistentBSTMap<String, Integer> b = new PersistentBSTMap<>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, 1 + i);
+            assertEquals(i + 1, b.size());
+            assertEquals(1 + i, (int) b.get("hi" + i));
+        }
+        assertFalse(b.containsKey("starfish"));
+        b.put("nothing", null);
+        assertTrue(b.containsKey("nothing"));
+        assertTrue(b.keySet().contains("hi7"));
+        assertNull(b.remove("hi0", 2));
+        assertEquals(1, (int) b.remove("hi0", 1));
+        assertEquals(455, b.size());
+        b.clear();
+        assertEquals(0, b.size());
+        assertFalse(b.iterator().hasNext());
+    }
+
+    /* A snapshot keeps its version while the map changes, and the other way around. */
+    @Test
+    public void testSnapshotIsolation() {
+        PersistentBSTMap<Integer, Integer> b = new PersistentBSTMap<>();
+        for (int i = 0; i < 100; i++) {
+            b.put(i, i);
+        }
+        PersistentBSTMap<Integer, Integer> snapshot = b.snapshot();
+        for (int i = 0; i < 100; i += 2) {
+            b.remove(i);
+        }
+        b.put(1, -1);
+        b.put(1000, 1000);
+        snapshot.put(-5, -5);
+
+        assertEquals(51, b.size());
+        assertEquals(-1, (int) b.get(1));
+        assertFalse(b.containsKey(-5));
+        assertEquals(101, snapshot.size());
+        assertEquals(1, (int) snapshot.get(1));
+        assertFalse(snapshot.containsKey(1000));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, (int) snapshot.get(i));
+        }
+    }
+
+    /* An iterator walks the version of its creation even if the map changes meanwhile. */
+    @Test
+    public void testIteratorIsStable() {
+        PersistentBSTMap<Integer, Integer> b = new PersistentBSTMap<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            b.put(i, i);
+            expected.add(i);
+        }
+        List<Integer> keys = new ArrayList<>();
+        for (int key : b) {
+            keys.add(key);
+            b.remove(key);
+            b.put(key + 1000, key);
+        }
+        assertEquals(expected, keys);
+        assertEquals(50, b.size());
+        assertFalse(b.containsKey(0));
+    }
+
+    /* Random puts and removes checked against TreeMap, keeping the tree weight-balanced. */
+    @Test
+    public void randomizedTest() {
+        PersistentBSTMap<Integer, Integer> b = new PersistentBSTMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 20000; i++) {
+            int key = r.nextInt(2000);
+            if (r.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), b.remove(key));
+            } else {
+                expected.put(key, i);
+                b.put(key, i);
+            }
+            assertEquals(expected.size(), b.size());
+            if (i % 1000 == 0) {
+                assertWeightBalanced(b.root);
+            }
+        }
+        for (int key = 0; key < 2000; key++) {
+            assertEquals(expected.get(key), b.get(key));
+        }
+        assertEquals(expected.keySet(), b.keySet());
+
+        PersistentBSTMap<Integer, Integer> inOrder = new PersistentBSTMap<>();
+        for (int i = 0; i < 100000; i++) {
+            inOrder.put(i, i);
+        }
+        // A weight-balanced tree with DELTA = 3 is less than 2 lg N high
+        assertTrue(inOrder.height() <= 2 * (32 - Integer.numberOfLeadingZeros(100000)));
+    }
+
+    /*
+     * A writer puts increasing keys while readers take snapshots. Every
+     * snapshot must be one whole version: the keys 0 .. size - 1, no more.
+     */
+    @Test
+    public void testConcurrentSnapshots() throws InterruptedException {
+        int n = 20000;
+        PersistentBSTMap<Integer, Integer> b = new PersistentBSTMap<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < n; i++) {
+                b.put(i, i);
+            }
+        });
+        Thread[] readers = new Thread[2];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                try {
+                    int size = 0;
+                    while (size < n) {
+                        PersistentBSTMap<Integer, Integer> snapshot = b.snapshot();
+                        assertTrue(snapshot.size() >= size);
+                        size = snapshot.size();
+                        int expected = 0;
+                        for (int key : snapshot) {
+                            assertEquals(expected++, key);
+                        }
+                        assertEquals(size, expected);
+                        assertFalse(snapshot.containsKey(size));
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+        }
+        writer.start();
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        writer.join();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+
+    /**
+     * Checks the invariants below NODE: keys in order, correct subtree sizes,
+     * and no side more than 3 times as heavy as the other. Returns the number
+     * of nodes.
+     */
+    private static int assertWeightBalanced(Node<Integer, ?> node) {
+        if (node == null) {
+            return 0;
+        }
+        Node<Integer, ?> left = node.getLeft();
+        Node<Integer, ?> right = node.getRight();
+        assertTrue(left == null || left.getKey() < node.getKey());
+        assertTrue(right == null || right.getKey() > node.getKey());
+        int leftSize = assertWeightBalanced(left);
+        int rightSize = assertWeightBalanced(right);
+        assertEquals(1 + leftSize + rightSize, node.getSize());
+        assertTrue(leftSize + rightSize <= 1
+                || (leftSize <= 3 * rightSize && rightSize <= 3 * leftSize));
+        return node.getSize();
+    }
+}
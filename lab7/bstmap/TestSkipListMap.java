@@ -0,0 +1,191 @@
+package bstmap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of the lock-free skip list map, alone and under several threads. */
+public class TestSkipListMap {
+
+    @Test
+    public void sanityTest() {
+        SkipListMap<String, Integer> b = new SkipListMap<>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, 1 + i);
+            assertEquals(i + 1, b.size());
+            assertEquals(1 + i, (int) b.get("hi" + i));
+        }
+        assertFalse(b.containsKey("starfish"));
+        b.put("hi0", 61);
+        assertEquals(455, b.size());
+        assertEquals(61, (int) b.get("hi0"));
+        b.put("nothing", null);
+        assertTrue(b.containsKey("nothing"));
+        assertNull(b.get("nothing"));
+        assertNull(b.remove("hi1", 1));
+        assertEquals(2, (int) b.remove("hi1", 2));
+        assertTrue(b.keySet().remove("hi2"));
+        assertFalse(b.keySet().contains("hi2"));
+        b.clear();
+        assertEquals(0, b.size());
+        assertFalse(b.iterator().hasNext());
+    }
+
+    /* Random puts and removes checked against TreeMap, including the range views. */
+    @Test
+    public void randomizedTest() {
+        SkipListMap<Integer, Integer> b = new SkipListMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 20000; i++) {
+            int key = r.nextInt(2000);
+            if (r.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), b.remove(key));
+            } else {
+                expected.put(key, i);
+                b.put(key, i);
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        for (int key = 0; key < 2000; key++) {
+            assertEquals(expected.get(key), b.get(key));
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), toList(b.iterator()));
+        assertEquals(new ArrayList<>(expected.subMap(500, 700).keySet()),
+                toList(b.subMap(500, 700).iterator()));
+        assertEquals(expected.headMap(300).size(), b.headMap(300).size());
+        assertEquals(expected.tailMap(1900).keySet(), b.tailMap(1900).keySet());
+        assertFalse(b.subMap(500, 700).containsKey(700));
+
+        b.subMap(500, 700).clear();
+        expected.subMap(500, 700).clear();
+        assertEquals(expected.keySet(), b.keySet());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutOutsideView() {
+        new SkipListMap<Integer, Integer>().tailMap(10).put(9, 1);
+    }
+
+    /*
+     * Threads put disjoint keys, then remove half of them, while another
+     * thread keeps iterating. No key may be lost or duplicated.
+     */
+    @Test
+    public void testConcurrentPutsAndRemoves() throws InterruptedException {
+        int threads = 4;
+        int perThread = 20000;
+        SkipListMap<Integer, Integer> b = new SkipListMap<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < perThread; i++) {
+                        b.put(i * threads + id, id);
+                    }
+                    for (int i = 0; i < perThread; i += 2) {
+                        assertEquals(id, (int) b.remove(i * threads + id));
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }));
+        }
+        Thread reader = new Thread(() -> {
+            try {
+                for (int round = 0; round < 20; round++) {
+                    int previous = -1;
+                    for (int key : b) {
+                        assertTrue(key > previous);
+                        previous = key;
+                    }
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        workers.add(reader);
+        for (Thread thread : workers) {
+            thread.start();
+        }
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+
+        assertEquals(threads * perThread / 2, b.size());
+        List<Integer> expected = new ArrayList<>();
+        for (int key = 0; key < threads * perThread; key++) {
+            boolean present = (key / threads) % 2 == 1;
+            assertEquals(present, b.containsKey(key));
+            if (present) {
+                expected.add(key);
+            }
+        }
+        assertEquals(expected, toList(b.iterator()));
+    }
+
+    /*
+     * Threads race to put and remove the same few keys. Every successful
+     * remove must return a value some thread put, and the size must agree
+     * with the keys left at the end.
+     */
+    @Test
+    public void testConcurrentContention() throws InterruptedException {
+        int threads = 4;
+        SkipListMap<Integer, Integer> b = new SkipListMap<>();
+        Set<Integer> putValues = ConcurrentHashMap.newKeySet();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    Random r = new Random(id);
+                    for (int i = 0; i < 50000; i++) {
+                        int key = r.nextInt(16);
+                        if (r.nextBoolean()) {
+                            int value = id * 1000000 + i;
+                            putValues.add(value);
+                            b.put(key, value);
+                        } else {
+                            Integer removed = b.remove(key);
+                            assertTrue(removed == null || putValues.contains(removed));
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        List<Integer> keys = toList(b.iterator());
+        assertEquals(keys.size(), b.size());
+        for (int key = 0; key < 16; key++) {
+            assertEquals(keys.contains(key), b.containsKey(key));
+        }
+    }
+
+    private static <T> List<T> toList(Iterator<T> iterator) {
+        List<T> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+}
@@ -0,0 +1,114 @@
+package bstmap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/** Tests of the ternary search trie map, checked against java.util.TreeMap. */
+public class TestTSTMap {
+
+    @Test
+    public void sanityTest() {
+        TSTMap<Integer> b = new TSTMap<>();
+        for (int i = 0; i < 455; i++) {
+            b.put("hi" + i, 1 + i);
+            assertEquals(i + 1, b.size());
+            assertEquals(1 + i, (int) b.get("hi" + i));
+        }
+        assertFalse(b.containsKey("h"));
+        assertFalse(b.containsKey("hi"));
+        assertFalse(b.containsKey("starfish"));
+        b.put("", 0);
+        b.put("nothing", null);
+        assertEquals(457, b.size());
+        assertTrue(b.containsKey(""));
+        assertTrue(b.containsKey("nothing"));
+        assertNull(b.get("nothing"));
+        assertEquals(0, (int) b.remove(""));
+        assertNull(b.remove("hi1", 1));
+        assertEquals(2, (int) b.remove("hi1", 2));
+        assertEquals(455, b.size());
+        b.clear();
+        assertEquals(0, b.size());
+        assertFalse(b.iterator().hasNext());
+    }
+
+    /* Random puts and removes of keys with shared prefixes, checked against TreeMap. */
+    @Test
+    public void randomizedTest() {
+        TSTMap<Integer> b = new TSTMap<>();
+        TreeMap<String, Integer> expected = new TreeMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 20000; i++) {
+            String key = randomKey(r);
+            if (r.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), b.remove(key));
+            } else {
+                expected.put(key, i);
+                b.put(key, i);
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        for (String key : expected.keySet()) {
+            assertEquals(expected.get(key), b.get(key));
+        }
+        assertEquals(new ArrayList<>(expected.keySet()), toList(b.iterator()));
+        assertEquals(expected.keySet(), b.keySet());
+
+        for (String prefix : new String[] {"", "a", "ab", "abc", "ba", "cccc", "z"}) {
+            List<String> withPrefix = new ArrayList<>();
+            for (String key : expected.keySet()) {
+                if (key.startsWith(prefix)) {
+                    withPrefix.add(key);
+                }
+            }
+            assertEquals(withPrefix, toList(b.keysWithPrefix(prefix).iterator()));
+        }
+
+        // Removing everything through the iterator empties the map
+        for (Iterator<String> it = b.iterator(); it.hasNext();) {
+            it.next();
+            it.remove();
+        }
+        assertEquals(0, b.size());
+        assertFalse(b.iterator().hasNext());
+    }
+
+    @Test
+    public void testLongestPrefixOf() {
+        TSTMap<Integer> b = new TSTMap<>();
+        assertNull(b.longestPrefixOf("shells"));
+        for (String key : new String[] {"she", "sells", "sea", "shells", "by", "the", "shore"}) {
+            b.put(key, key.length());
+        }
+        assertEquals("shells", b.longestPrefixOf("shellsort"));
+        assertEquals("she", b.longestPrefixOf("shell"));
+        assertEquals("she", b.longestPrefixOf("she"));
+        assertNull(b.longestPrefixOf("sh"));
+        assertNull(b.longestPrefixOf("quicksort"));
+        b.put("", 0);
+        assertEquals("", b.longestPrefixOf("quicksort"));
+        assertEquals(List.of("sea", "sells"), toList(b.keysWithPrefix("se").iterator()));
+        assertEquals(List.of("she", "shells", "shore"), toList(b.keysWithPrefix("sh").iterator()));
+        assertEquals(List.of(), toList(b.keysWithPrefix("shellsort").iterator()));
+    }
+
+    /** Returns a key of 1 to 6 letters from {a, b, c}, so that many keys share prefixes. */
+    private static String randomKey(Random r) {
+        char[] chars = new char[1 + r.nextInt(6)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + r.nextInt(3));
+        }
+        return new String(chars);
+    }
+
+    private static <T> List<T> toList(Iterator<T> iterator) {
+        List<T> list = new ArrayList<>();
+        iterator.forEachRemaining(list::add);
+        return list;
+    }
+}
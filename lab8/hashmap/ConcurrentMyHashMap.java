@@ -0,0 +1,344 @@
+package hashmap;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *  A thread-safe hash table built from lock stripes. The hash range is split
+ *  into segments, each a small chained hash table guarded by its own lock, so
+ *  writers only contend when their keys fall into the same segment.
+ *
+ *  Readers never lock. Nodes are published through an AtomicReferenceArray
+ *  and a segment's table reference is volatile, so get() always sees either
+ *  the table before a resize or the complete one after it. A resize copies the
+ *  nodes of one segment into a fresh table while holding that segment's lock;
+ *  readers keep using the old table and other segments keep accepting writes.
+ *
+ *  size(), keySet() and iterator() are weakly consistent: they reflect some
+ *  state of each segment, but not necessarily one moment for the whole map.
+ *
+ *  Assumes null keys will never be inserted.
+ */
+public class ConcurrentMyHashMap<K, V> implements Map61B<K, V> {
+    /** Chain node. Only value and next change, and only under the segment lock. */
+    private static final class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        volatile Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /** One stripe of the map: a chained hash table with its own lock. */
+    private static final class Segment<K, V> {
+        /** Guards every write to this segment */
+        private final ReentrantLock lock = new ReentrantLock();
+        /** Replaced, never modified in place, when the segment resizes */
+        volatile AtomicReferenceArray<Node<K, V>> table;
+        /** Number of entries, written only under the lock */
+        volatile int count;
+        final double maxLoad;
+
+        Segment(int tableSize, double maxLoad) {
+            this.table = new AtomicReferenceArray<>(tableSize);
+            this.maxLoad = maxLoad;
+        }
+
+        V get(int hash, Object key) {
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            for (Node<K, V> node = tab.get(hash & (tab.length() - 1)); node != null; node = node.next) {
+                if (node.hash == hash && node.key.equals(key)) {
+                    return node.value;
+                }
+            }
+            return null;
+        }
+
+        boolean containsKey(int hash, Object key) {
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            for (Node<K, V> node = tab.get(hash & (tab.length() - 1)); node != null; node = node.next) {
+                if (node.hash == hash && node.key.equals(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void put(int hash, K key, V value) {
+            lock.lock();
+            try {
+                AtomicReferenceArray<Node<K, V>> tab = table;
+                int index = hash & (tab.length() - 1);
+                Node<K, V> head = tab.get(index);
+                for (Node<K, V> node = head; node != null; node = node.next) {
+                    if (node.hash == hash && node.key.equals(key)) {
+                        node.value = value; // updates this value
+                        return;
+                    }
+                }
+                // Not found, publishes a new head node
+                tab.set(index, new Node<>(hash, key, value, head));
+                count++;
+                if (count > tab.length() * maxLoad) {
+                    rehash(tab);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Copies every node of TAB into a table twice as large, then publishes it.
+         * Nodes are copied instead of relinked so that readers still walking TAB
+         * never follow a next pointer into the wrong chain.
+         */
+        private void rehash(AtomicReferenceArray<Node<K, V>> tab) {
+            AtomicReferenceArray<Node<K, V>> newTab = new AtomicReferenceArray<>(tab.length() * 2);
+            int mask = newTab.length() - 1;
+            for (int i = 0; i < tab.length(); i++) {
+                for (Node<K, V> node = tab.get(i); node != null; node = node.next) {
+                    int index = node.hash & mask;
+                    newTab.lazySet(index, new Node<>(node.hash, node.key, node.value, newTab.get(index)));
+                }
+            }
+            table = newTab; // the volatile write publishes all of the lazySets above
+        }
+
+        /**
+         * Removes KEY if it is present and, when MATCHVALUE is set, mapped to
+         * VALUE. Returns the removed node, or null if nothing was removed.
+         */
+        Node<K, V> remove(int hash, Object key, Object value, boolean matchValue) {
+            lock.lock();
+            try {
+                AtomicReferenceArray<Node<K, V>> tab = table;
+                int index = hash & (tab.length() - 1);
+                Node<K, V> prev = null;
+                for (Node<K, V> node = tab.get(index); node != null; prev = node, node = node.next) {
+                    if (node.hash == hash && node.key.equals(key)) {
+                        if (matchValue && !Objects.equals(node.value, value)) {
+                            return null;
+                        }
+                        // Unlinking is one volatile write; a reader standing on
+                        // the removed node can still follow its next pointer
+                        if (prev == null) {
+                            tab.set(index, node.next);
+                        } else {
+                            prev.next = node.next;
+                        }
+                        count--;
+                        return node;
+                    }
+                }
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                table = new AtomicReferenceArray<>(table.length());
+                count = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /* Instance Variables */
+    private final Segment<K, V>[] segments;
+    /** Number of low hash bits left to pick a bucket within a segment */
+    private final int segmentShift;
+
+    /** Constructors */
+    public ConcurrentMyHashMap() {
+        this(16, 0.75, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    public ConcurrentMyHashMap(int initialSize) {
+        this(initialSize, 0.75, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * ConcurrentMyHashMap constructor that spreads a backing table of about
+     * initialSize buckets over concurrencyLevel lock stripes. Each stripe
+     * keeps its own load factor <= maxLoad.
+     *
+     * @param initialSize initial total number of buckets
+     * @param maxLoad maximum load factor of each stripe
+     * @param concurrencyLevel expected number of concurrent writers, rounded up to a power of two
+     */
+    public ConcurrentMyHashMap(int initialSize, double maxLoad, int concurrencyLevel) {
+        if (maxLoad <= 0) {
+            throw new IllegalArgumentException("maxLoad must be positive: " + maxLoad);
+        }
+        int segmentCount = powerOfTwoAtLeast(Math.max(1, concurrencyLevel));
+        int tableSize = powerOfTwoAtLeast(Math.max(2, initialSize / segmentCount));
+        this.segments = newSegmentArray(segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(tableSize, maxLoad);
+        }
+        this.segmentShift = 32 - Integer.numberOfTrailingZeros(segmentCount);
+    }
+
+    /** Returns an array for LENGTH segments; Java can't create a generic array directly. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <K, V> Segment<K, V>[] newSegmentArray(int length) {
+        return new Segment[length];
+    }
+
+    /** Returns the smallest power of two that is >= n. */
+    private static int powerOfTwoAtLeast(int n) {
+        int highest = Integer.highestOneBit(n);
+        return highest == n ? n : highest << 1;
+    }
+
+    /**
+     * Returns the hash used for KEY. Segments are picked by the high bits and
+     * buckets by the low bits, so both halves of hashCode() are mixed in.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private Segment<K, V> segmentFor(int hash) {
+        // A single segment would need a shift of 32, which Java treats as 0
+        return segments.length == 1 ? segments[0] : segments[hash >>> segmentShift];
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        if (key == null) {
+            return false;
+        }
+        int h = hash(key);
+        return segmentFor(h).containsKey(h, key);
+    }
+
+    @Override
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        int h = hash(key);
+        return segmentFor(h).get(h, key);
+    }
+
+    @Override
+    public int size() {
+        long total = 0;
+        for (Segment<K, V> segment : segments) {
+            total += segment.count;
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            return;
+        }
+        int h = hash(key);
+        segmentFor(h).put(h, key, value);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> set = new HashSet<>();
+        for (K key : this) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        int h = hash(key);
+        Node<K, V> removed = segmentFor(h).remove(h, key, null, false);
+        return removed == null ? null : removed.value;
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        if (key == null) {
+            return null;
+        }
+        int h = hash(key);
+        Node<K, V> removed = segmentFor(h).remove(h, key, value, true);
+        return removed == null ? null : value;
+    }
+
+    /**
+     * Returns a weakly consistent iterator. It never throws because of
+     * concurrent updates and walks each segment's table as it was when the
+     * iterator reached that segment.
+     */
+    @Override
+    public Iterator<K> iterator() {
+        return new Iterator<>() {
+            int segmentIndex = 0;
+            AtomicReferenceArray<Node<K, V>> table = segments[0].table;
+            int bucketIndex = 0;
+            Node<K, V> next = advance(null);
+
+            /** Returns the node after NODE, moving on to later buckets and segments. */
+            private Node<K, V> advance(Node<K, V> node) {
+                if (node != null && node.next != null) {
+                    return node.next;
+                }
+                while (true) {
+                    if (bucketIndex == table.length()) {
+                        if (++segmentIndex == segments.length) {
+                            return null;
+                        }
+                        table = segments[segmentIndex].table;
+                        bucketIndex = 0;
+                    }
+                    Node<K, V> head = table.get(bucketIndex++);
+                    if (head != null) {
+                        return head;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public K next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                K key = next.key;
+                next = advance(next);
+                return key;
+            }
+        };
+    }
+}
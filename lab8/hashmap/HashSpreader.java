@@ -0,0 +1,39 @@
+package hashmap;
+
+/**
+ * Mixes a key's hashCode() before MyHashMap masks it down to a bucket index.
+ * A power-of-two table only looks at the low bits of the hash, so a spreader
+ * should make those bits depend on the high ones as well.
+ *
+ * Spreading can't separate keys whose hashCode() values are equal; that is
+ * what tree buckets are for. A seeded spreader does keep an attacker who
+ * doesn't know the seed from choosing distinct hash codes that all land in
+ * one bucket.
+ */
+@FunctionalInterface
+public interface HashSpreader {
+    /** Returns the mixed form of HASHCODE. */
+    int spread(int hashCode);
+
+    /** Uses hashCode() as is. */
+    HashSpreader IDENTITY = hashCode -> hashCode;
+
+    /** Folds the high half into the low half, as java.util.HashMap does. */
+    HashSpreader XOR_SHIFT = hashCode -> hashCode ^ (hashCode >>> 16);
+
+    /**
+     * Returns a spreader that applies the MurmurHash3 32-bit finalizer to the
+     * hash code xor SEED. Every output bit depends on every input bit.
+     */
+    static HashSpreader murmur(int seed) {
+        return hashCode -> {
+            int h = hashCode ^ seed;
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h;
+        };
+    }
+}
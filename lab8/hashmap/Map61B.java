@@ -1,5 +1,8 @@
 package hashmap;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 /**
  * Your implementation hashmap.MyHashMap should implement this interface. To do so,
@@ -45,5 +48,52 @@ public interface Map61B<K, V> extends Iterable<K> {
      * throw an UnsupportedOperationException.
      */
     V remove(K key, V value);
-}
 
+    /**
+     * Copies all of the mappings from the specified map to this map, replacing
+     * the values of keys already present. Implementations may override this to
+     * size their storage once for the whole batch.
+     */
+    default void putAll(Map61B<K, V> other) {
+        for (K key : other) {
+            put(key, other.get(key));
+        }
+    }
+
+    /**
+     * Returns the values mapped to the specified keys, in the same order, with
+     * null for each key that has no mapping.
+     */
+    default List<V> getAll(Iterable<K> keys) {
+        List<V> values = keys instanceof Collection
+                ? new ArrayList<>(((Collection<K>) keys).size()) : new ArrayList<>();
+        for (K key : keys) {
+            values.add(get(key));
+        }
+        return values;
+    }
+
+    /**
+     * Removes the mappings for all of the specified keys that are present and
+     * returns how many were removed. Relies on remove(K), so it is only
+     * supported where remove is.
+     */
+    default int removeAll(Iterable<K> keys) {
+        if (keys == this) {
+            // Removing can move entries under our own iterator, so walk a copy
+            List<K> copy = new ArrayList<>(size());
+            for (K key : this) {
+                copy.add(key);
+            }
+            keys = copy;
+        }
+        int removed = 0;
+        for (K key : keys) {
+            if (containsKey(key)) {
+                remove(key);
+                removed++;
+            }
+        }
+        return removed;
+    }
+}
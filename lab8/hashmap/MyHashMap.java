@@ -1,48 +1,91 @@
 package hashmap;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  *  A hash table-backed Map implementation. Provides amortized constant time
  *  access to elements via get(), remove(), and put() in the best case.
  *
- *  Assumes null keys will never be inserted, and does not resize down upon remove().
+ *  Buckets are only allocated once an item lands in them. The table is halved when
+ *  remove() drops the load factor below a quarter of maxLoad, but never below its
+ *  initial size; trimToSize() shrinks it as far as maxLoad allows.
+ *
+ *  Assumes null keys will never be inserted.
  *  @author Tamaki Tiana
  */
 public class MyHashMap<K, V> implements Map61B<K, V> {
     /**
-     * Protected helper class to store key/value pairs
-     * The protected qualifier allows subclass access
+     * A key-value pair. Nodes are also the entries handed out by entryIterator()
+     * and entries(); setValue() writes through to the map. Unlike java.util
+     * entries, nodes compare by identity, since buckets rely on that to remove
+     * the exact node they hold.
      */
-    protected class Node {
+    protected class Node implements Map.Entry<K, V> {
         K key;
         V value;
+        /** key.hashCode(), cached so that resizes and bulk copies never recompute it */
+        final int hash;
 
-        Node(K k, V v) {
+        Node(K k, int h, V v) {
             key = k;
+            hash = h;
             value = v;
         }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V v) {
+            V old = value;
+            value = v;
+            return old;
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
     }
 
+    /** Number of old buckets moved into the new table per put/remove while migrating */
+    private static final int MIGRATION_STEP = 4;
+
     /* Instance Variables */
     private Collection<Node>[] buckets;
     private int arraySize;
+    /** Size the table never automatically shrinks below */
+    private final int minArraySize;
     private final double maxLoad;
     private int size;
+    /** Whether growing the table is spread over later operations */
+    private final boolean incrementalResize;
+    /** Mixes hash codes before they are masked down to a bucket index */
+    private final HashSpreader spreader;
+    /** Table being drained into buckets during an incremental resize, null otherwise */
+    private Collection<Node>[] oldBuckets;
+    /** Index of the next bucket of oldBuckets to migrate */
+    private int migrationIndex;
+    /** Live view returned by keySet(), created on first use */
+    private Set<K> keySetView;
 
     /** Constructors */
     public MyHashMap() {
-        this.arraySize = 16;
-        this.maxLoad = 0.75;
-        this.size = 0;
-        this.buckets = createTable(arraySize);
+        this(16, 0.75);
     }
 
     public MyHashMap(int arraySize) {
-        this.arraySize = arraySize;
-        this.maxLoad = 0.75;
-        this.size = 0;
-        this.buckets = createTable(arraySize);
+        this(arraySize, 0.75);
     }
 
     /**
@@ -53,17 +96,60 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * @param maxLoad maximum load factor
      */
     public MyHashMap(int arraySize, double maxLoad) {
-        this.arraySize = arraySize;
+        this(arraySize, maxLoad, false);
+    }
+
+    /**
+     * MyHashMap constructor that can choose how the table grows.
+     *
+     * With incrementalResize, crossing maxLoad only allocates the larger table.
+     * Every later put() and remove() then moves a few buckets of the old table
+     * into it, and lookups consult both tables until the old one is drained.
+     * No single operation pays for rehashing the whole map. get() never
+     * migrates, so looking keys up while iterating stays safe.
+     *
+     * @param arraySize initial size of backing array
+     * @param maxLoad maximum load factor
+     * @param incrementalResize true to migrate buckets gradually on resize
+     */
+    public MyHashMap(int arraySize, double maxLoad, boolean incrementalResize) {
+        this(arraySize, maxLoad, incrementalResize, HashSpreader.XOR_SHIFT);
+    }
+
+    /**
+     * MyHashMap constructor that also chooses how hash codes are spread
+     * over the buckets. The backing array size is always a power of two,
+     * so a bucket index is the spread hash masked to its low bits.
+     *
+     * @param arraySize initial size of backing array, rounded up to a power of two
+     * @param maxLoad maximum load factor
+     * @param incrementalResize true to migrate buckets gradually on resize
+     * @param spreader mixes each key's hashCode() before masking
+     */
+    public MyHashMap(int arraySize, double maxLoad, boolean incrementalResize,
+                     HashSpreader spreader) {
+        this.arraySize = tableSizeFor(arraySize);
+        this.minArraySize = this.arraySize;
         this.maxLoad = maxLoad;
+        this.incrementalResize = incrementalResize;
+        this.spreader = spreader;
         this.size = 0;
-        this.buckets = createTable(arraySize);
+        this.buckets = createTable(this.arraySize);
+    }
+
+    /** Returns the smallest power of two that is >= n, and at least 1. */
+    private static int tableSizeFor(int n) {
+        if (n <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(n - 1) << 1;
     }
 
     /**
      * Returns a new node to be placed in a hash table bucket
      */
-    private Node createNode(K key, V value) {
-        return new Node(key,value);
+    private Node createNode(K key, int hash, V value) {
+        return new Node(key, hash, value);
     }
 
     /**
@@ -95,21 +181,35 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
      * BE SURE TO CALL THIS FACTORY METHOD WHEN CREATING A TABLE SO
      * THAT ALL BUCKET TYPES ARE OF JAVA.UTIL.COLLECTION
      *
+     * Slots start out null; bucketAt creates a bucket the first
+     * time an item is added to it.
+     *
      * @param tableSize the size of the table to create
      */
     private Collection<Node>[] createTable(int tableSize) {
         @SuppressWarnings("unchecked") // suppress the unchecked cast warning
         Collection<Node>[] buckets = new Collection[tableSize];
-        for (int i = 0; i < tableSize; i++) {
-            buckets[i] = createBucket(); // correct way to assign to the array
-        }
         return buckets;
     }
 
-    /** Drops out all items with the help of garbage collector. */
+    /** Returns the bucket at INDEX of the current table, creating it if needed. */
+    private Collection<Node> bucketAt(int index) {
+        Collection<Node> bucket = buckets[index];
+        if (bucket == null) {
+            bucket = createBucket(); // correct way to assign to the array
+            buckets[index] = bucket;
+        }
+        return bucket;
+    }
+
+    /**
+     * Drops out all items with the help of garbage collector.
+     * The table itself is kept, so refilling the map doesn't regrow it.
+     */
     @Override
     public void clear() {
-        this.buckets = createTable(arraySize);
+        Arrays.fill(buckets, null);
+        this.oldBuckets = null;
         size = 0;
     }
 
@@ -123,19 +223,38 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         if (key == null) {
             return null;
         }
+        Node node = findNode(key, key.hashCode());
+        return node == null ? null : node.value;
+    }
+
+    /**
+     * Returns the node holding KEY, or null if there is none. While an incremental
+     * resize is in progress, the key may still sit in a not yet migrated old bucket.
+     */
+    private Node findNode(K key, int hash) {
         // Calculate the index of the bucket in the hash table
-        int index = reducedHashFunction(key, arraySize - 1);
+        Collection<Node> bucket = buckets[reducedHashFunction(hash, arraySize - 1)];
+        Node node = bucket == null ? null : findInBucket(bucket, key);
+        if (node == null && oldBuckets != null) {
+            bucket = oldBuckets[reducedHashFunction(hash, oldBuckets.length - 1)];
+            node = bucket == null ? null : findInBucket(bucket, key);
+        }
+        return node;
+    }
 
+    /**
+     * Returns the node in BUCKET whose key equals KEY, or null if there is none.
+     *
+     * Override this method together with createBucket when the bucket type
+     * can find a key faster than by iterating through all of its nodes.
+     */
+    protected Node findInBucket(Collection<Node> bucket, K key) {
         // Iterate through all nodes in the bucket to find the matching key
-        for (Node node : buckets[index]) {
-            // Compare the current node's key with the input key
+        for (Node node : bucket) {
             if (node.key.equals(key)) {
-                // If the matching key is found, return its value
-                return node.value;
+                return node;
             }
         }
-
-        // If the corresponding key is not found, return null
         return null;
     }
 
@@ -152,10 +271,11 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         if (key == null) {
             return;
         }
+       migrate(MIGRATION_STEP);
        // Resizes array if necessary
        resizeArray(2);
        // Adds the new entry to the hash map
-       putHelper(key,value);
+       putHelper(key, key.hashCode(), value);
     }
 
     /** Resizes array and redistribute all items if necessary. */
@@ -163,70 +283,213 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         double loadFactor = (double) (size) / arraySize;
         if (loadFactor > maxLoad) {
             reconstruct((int) (arraySize * scalingRate));
-            arraySize *= (int) scalingRate;
         }
     }
 
-    private void putHelper(K key, V value) {
-        int index = reducedHashFunction(key, arraySize - 1);
-        if (buckets[index] != null) {
-            for (Node node : buckets[index]) {
-                if (node.key.equals(key)) {
-                    node.value = value; // updates this value
-                    return;
-                }
-            }
+    private void putHelper(K key, int hash, V value) {
+        Node existing = findNode(key, hash);
+        if (existing != null) {
+            existing.value = value; // updates this value
+            return;
         }
 
         // Not found,adds new node
-        Node node = createNode(key, value);
-        buckets[index].add(node);
+        Node node = createNode(key, hash, value);
+        bucketAt(reducedHashFunction(hash, arraySize - 1)).add(node);
         size++; // Updates size
     }
 
+    /**
+     * Replaces the table with one of the given capacity. Nodes are moved rather
+     * than re-put, and the new table comes from createTable so subclasses keep
+     * their bucket type. In incremental mode the move is left to migrate().
+     */
     private void reconstruct(int capacity) {
-        MyHashMap<K,V> newTable = new MyHashMap<>(capacity);
-        newTable.putAll(this);
-        this.buckets = newTable.buckets;
+        // A resize can't start before the previous one has drained
+        migrate(Integer.MAX_VALUE);
+        oldBuckets = buckets;
+        migrationIndex = 0;
+        buckets = createTable(capacity);
+        arraySize = capacity;
+        if (!incrementalResize) {
+            migrate(Integer.MAX_VALUE);
+        }
     }
 
-    /** Puts all items in the given hashMap into this hashMap. */
-    public void putAll(MyHashMap<K,V> otherHashMap){
-        for (K key : otherHashMap) {
-            V value = otherHashMap.get(key);
-            put(key, value);
+    /** Moves up to STEPS buckets of oldBuckets into the current table. */
+    private void migrate(int steps) {
+        if (oldBuckets == null) {
+            return;
+        }
+        for (; steps > 0 && migrationIndex < oldBuckets.length; steps--) {
+            Collection<Node> bucket = oldBuckets[migrationIndex];
+            oldBuckets[migrationIndex] = null;
+            migrationIndex++;
+            if (bucket == null) {
+                continue;
+            }
+            for (Node node : bucket) {
+                bucketAt(reducedHashFunction(node.hash, arraySize - 1)).add(node);
+            }
+        }
+        if (migrationIndex == oldBuckets.length) {
+            oldBuckets = null;
         }
     }
 
+    /**
+     * Halves the table while the load factor is below a quarter of maxLoad,
+     * rebuilding it once at the final size. Growing happens above maxLoad, so
+     * the two thresholds can't chase each other when items are added and
+     * removed around one boundary.
+     */
+    private void shrinkIfNeeded() {
+        int capacity = arraySize;
+        while (capacity > minArraySize && size < capacity * maxLoad / 4) {
+            capacity /= 2;
+        }
+        if (capacity < arraySize) {
+            reconstruct(capacity);
+        }
+    }
+
+    /**
+     * Shrinks the table to the smallest size that keeps the load factor within
+     * maxLoad, releasing buckets left empty by removals. Unlike the automatic
+     * shrinking in remove(), this may go below the initial size.
+     */
+    public void trimToSize() {
+        int capacity = tableSizeFor((int) Math.ceil(size / maxLoad));
+        if (capacity < arraySize) {
+            reconstruct(capacity);
+        }
+        migrate(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Grows the table once so that it can hold EXPECTEDSIZE items without
+     * exceeding maxLoad, finishing any incremental resize in progress.
+     */
+    public void ensureCapacity(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(expectedSize / maxLoad));
+        if (capacity > arraySize) {
+            reconstruct(capacity);
+        }
+        migrate(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Puts all items in the given map into this hashMap. The table is sized
+     * once for both maps up front. When the other map is a MyHashMap, its
+     * nodes are walked directly, reusing their cached hash codes instead of
+     * calling get() and hashCode() for every key.
+     */
+    @Override
+    public void putAll(Map61B<K, V> other) {
+        if (other == this) {
+            return;  // Every mapping is already here; presizing would only grow the table
+        }
+        ensureCapacity(size + other.size());
+        if (other instanceof MyHashMap) {
+            Iterator<MyHashMap<K, V>.Node> nodes = ((MyHashMap<K, V>) other).nodeIterator();
+            while (nodes.hasNext()) {
+                MyHashMap<K, V>.Node node = nodes.next();
+                putHelper(node.key, node.hash, node.value);
+            }
+        } else {
+            for (K key : other) {
+                putHelper(key, key.hashCode(), other.get(key));
+            }
+        }
+    }
+
+    /** Removes every key of KEYS, shrinking the table at most once at the end. */
+    @Override
+    public int removeAll(Iterable<K> keys) {
+        if (keys == keySetView || keys == this) {
+            // Iterating our own keys while unlinking them would break the walk
+            int removed = size;
+            clear();
+            return removed;
+        }
+        migrate(Integer.MAX_VALUE);
+        int removed = 0;
+        for (K key : keys) {
+            if (key == null) {
+                continue;
+            }
+            Node node = findNode(key, key.hashCode());
+            if (node != null) {
+                unlinkNode(node);
+                removed++;
+            }
+        }
+        shrinkIfNeeded();
+        return removed;
+    }
+
     @Override
     public Set<K> keySet() {
-        Set<K> set = new HashSet<>();
-        for (Collection<Node> bucket : this.buckets) {
-           for (Node node : bucket) {
-               set.add(node.key);
-           }
+        if (keySetView == null) {
+            keySetView = new KeySet();
+        }
+        return keySetView;
+    }
+
+    /**
+     * A live view of the keys: it reads through to the table without copying,
+     * and removing from it, directly or through its iterator, removes from the
+     * map.
+     */
+    private class KeySet extends AbstractSet<K> {
+        @Override
+        public Iterator<K> iterator() {
+            return MyHashMap.this.iterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean contains(Object o) {
+            try {
+                return containsKey((K) o);
+            } catch (ClassCastException e) {
+                return false; // a key of a class that equals() can't handle
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean remove(Object o) {
+            if (!contains(o)) {
+                return false;
+            }
+            MyHashMap.this.remove((K) o);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            MyHashMap.this.clear();
         }
-        return set;
     }
 
     @Override
     public V remove(K key) {
-        int index = reducedHashFunction(key, arraySize - 1);
-        // Attempts to get the node in the corresponding bucket
-        Node nodeToRemove = null;
-        for (Node node : buckets[index]) {
-            if (node.key.equals(key)) {
-                nodeToRemove = node;
-                break;
-            }
+        if (key == null) {
+            return null;
         }
+        migrate(MIGRATION_STEP);
+        // Attempts to get the node in the corresponding bucket
+        Node nodeToRemove = findNode(key, key.hashCode());
 
         if (nodeToRemove != null) { // If we get the node to remove
             V value = nodeToRemove.value;
-            buckets[index].remove(nodeToRemove); // Removes it from the bucket
-            size--; // Updates size
-            resizeArray(0.5); // Resizes array if necessary
-
+            removeNode(nodeToRemove); // Removes it from its bucket
             return value;
         }
 
@@ -235,22 +498,17 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
 
     @Override
     public V remove(K key, V value) {
-        int index = reducedHashFunction(key, arraySize - 1);
-        // Attempts to get the node in the corresponding bucket
-        Node nodeToRemove = null;
-        for (Node node : buckets[index]) {
-            if (node.key.equals(key)) {
-                nodeToRemove = node;
-                break;
-            }
+        if (key == null) {
+            return null;
         }
+        migrate(MIGRATION_STEP);
+        // Attempts to get the node in the corresponding bucket
+        Node nodeToRemove = findNode(key, key.hashCode());
 
         if (nodeToRemove != null) { // If we get the node to remove
             V realValue = nodeToRemove.value;
             if (realValue.equals(value)) {
-                buckets[index].remove(nodeToRemove); // Removes it from the bucket
-                size--; // Updates size
-                resizeArray(0.5); // Resizes array if necessary
+                removeNode(nodeToRemove); // Removes it from its bucket
             }
             return value;
         }
@@ -258,48 +516,249 @@ public class MyHashMap<K, V> implements Map61B<K, V> {
         return null;
     }
 
+    /** Removes NODE from whichever table currently holds it. */
+    private void removeNode(Node node) {
+        unlinkNode(node);
+        shrinkIfNeeded(); // Resizes array if necessary
+    }
+
+    /** Removes NODE from its bucket without considering a resize. */
+    private void unlinkNode(Node node) {
+        Collection<Node> bucket = buckets[reducedHashFunction(node.hash, arraySize - 1)];
+        if (bucket == null || !bucket.remove(node)) {
+            oldBuckets[reducedHashFunction(node.hash, oldBuckets.length - 1)].remove(node);
+        }
+        size--; // Updates size
+    }
+
     @Override
     public Iterator<K> iterator() {
+        Iterator<Node> nodes = nodeIterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            @Override
+            public K next() {
+                return nodes.next().key;
+            }
+
+            @Override
+            public void remove() {
+                nodes.remove();
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the entries of this map. Reading values this way
+     * avoids a get() per key; setValue() on an entry updates the map, and
+     * remove() on the iterator removes the entry.
+     */
+    public Iterator<Map.Entry<K, V>> entryIterator() {
+        Iterator<Node> nodes = nodeIterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            @Override
+            public Map.Entry<K, V> next() {
+                return nodes.next();
+            }
+
+            @Override
+            public void remove() {
+                nodes.remove();
+            }
+        };
+    }
+
+    /**
+     * Returns a Stream of the entries of this map. Its spliterator splits on
+     * ranges of buckets, so entries().parallel() can hand each half of the
+     * table to a different fork-join worker. Any incremental resize in
+     * progress is finished first so that all entries sit in one table.
+     * The map must not be modified while the stream is in use.
+     */
+    public Stream<Map.Entry<K, V>> entries() {
+        migrate(Integer.MAX_VALUE);
+        return StreamSupport.stream(new EntrySpliterator(buckets, 0, buckets.length, size), false);
+    }
+
+    /**
+     * Spliterator over the buckets of TABLE in [index, fence). Splitting halves
+     * the range of buckets; sizes of split halves are estimates.
+     */
+    private class EntrySpliterator implements Spliterator<Map.Entry<K, V>> {
+        private final Collection<Node>[] table;
+        private int index;
+        private final int fence;
+        private long estimate;
+        private boolean exact;
+        private Iterator<Node> current = Collections.emptyIterator();
+
+        EntrySpliterator(Collection<Node>[] table, int index, int fence, long estimate) {
+            this.table = table;
+            this.index = index;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.exact = index == 0 && fence == table.length;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<K, V>> action) {
+            while (!current.hasNext()) {
+                if (index >= fence) {
+                    return false;
+                }
+                Collection<Node> bucket = table[index++];
+                if (bucket != null) {
+                    current = bucket.iterator();
+                }
+            }
+            action.accept(current.next());
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Map.Entry<K, V>> action) {
+            current.forEachRemaining(action);
+            for (; index < fence; index++) {
+                Collection<Node> bucket = table[index];
+                if (bucket != null) {
+                    for (Node node : bucket) {
+                        action.accept(node);
+                    }
+                }
+            }
+            current = Collections.emptyIterator();
+        }
+
+        @Override
+        public Spliterator<Map.Entry<K, V>> trySplit() {
+            int mid = (index + fence) >>> 1;
+            // Only splits between whole buckets, never inside the one being read
+            if (current.hasNext() || mid <= index) {
+                return null;
+            }
+            EntrySpliterator prefix = new EntrySpliterator(table, index, mid, estimate >>> 1);
+            index = mid;
+            estimate -= prefix.estimate;
+            exact = false;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL | (exact ? SIZED : 0);
+        }
+    }
+
+    /**
+     * Returns an iterator over every node, in bucket order. Its remove()
+     * unlinks the last node returned through the iterator of the bucket that
+     * holds it, in either table, so an incremental resize in progress stays
+     * consistent. Neither migrate() nor shrinkIfNeeded() runs there, since
+     * moving buckets would break the walk; trimToSize() releases the space
+     * afterwards.
+     */
+    private Iterator<Node> nodeIterator() {
         return new Iterator<>() {
+            // Walks the current table, then whatever is left of the old one
+            Collection<Node>[] table = buckets;
             int currentIndex = 0;
-            Iterator<Node> currentIterator = (buckets.length > 0) ? buckets[currentIndex].iterator() : Collections.emptyIterator();
+            Iterator<Node> currentIterator = Collections.emptyIterator();
+            // The bucket iterator that returned the last node, null if it was removed
+            Iterator<Node> lastIterator;
 
             @Override
             public boolean hasNext() {
                 // Checks if there's next item in the bucket
                 while (!currentIterator.hasNext()) {
+                    if (currentIndex == table.length) {
+                        if (table == oldBuckets || oldBuckets == null) {
+                            // Reaches the end of all buckets,just return false
+                            return false;
+                        }
+                        table = oldBuckets;
+                        currentIndex = 0;
+                        continue;
+                    }
                     // Moves to the next bucket
-                    if (currentIndex < buckets.length - 1) {
-                        currentIndex++;
-                        currentIterator = buckets[currentIndex].iterator();
-                    } else {
-                        // Reaches the end of all buckets,just return false
-                        return false;
+                    Collection<Node> bucket = table[currentIndex++];
+                    if (bucket != null) {
+                        currentIterator = bucket.iterator();
                     }
                 }
                 return true;
             }
 
             @Override
-            public K next() {
+            public Node next() {
                 if (!hasNext()) {
                     throw new NoSuchElementException();
                 }
-                return currentIterator.next().key;
+                lastIterator = currentIterator;
+                return currentIterator.next();
+            }
+
+            @Override
+            public void remove() {
+                if (lastIterator == null) {
+                    throw new IllegalStateException();
+                }
+                lastIterator.remove();
+                lastIterator = null;
+                size--;
             }
         };
     }
 
     /**
-     * Given an object and a indexBound,returns the correct index of the object.
-     * Works even the hashcode of that object is negative.
+     * Returns a histogram of bucket lengths: element i is the number of buckets
+     * holding exactly i items, and the last element counts the longest bucket.
+     * Slots whose bucket was never allocated count as empty buckets. During an
+     * incremental resize, old buckets that have not been migrated are included.
+     */
+    public int[] bucketLengthHistogram() {
+        int[] histogram = addToHistogram(new int[1], buckets, 0);
+        if (oldBuckets != null) {
+            histogram = addToHistogram(histogram, oldBuckets, migrationIndex);
+        }
+        return histogram;
+    }
+
+    /** Counts the buckets of TABLE from index FROM on, growing HISTOGRAM as needed. */
+    private int[] addToHistogram(int[] histogram, Collection<Node>[] table, int from) {
+        for (int i = from; i < table.length; i++) {
+            int length = table[i] == null ? 0 : table[i].size();
+            if (length >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, length + 1);
+            }
+            histogram[length]++;
+        }
+        return histogram;
+    }
+
+    /**
+     * Given a hash code and a indexBound,returns the correct index of its object.
+     * The hash code is spread first, then masked, so it works even when the
+     * hashcode of that object is negative.
      *
-     * @param key The key to the given value
-     * @param indexBound The greatest index of an array
+     * @param hashcode The hashCode() of the key to the given value
+     * @param indexBound The greatest index of an array, whose length is a power of two
      * @return index corresponding to the slot where the object should go to
      */
-    private int reducedHashFunction(K key,int indexBound) {
-        int hashcode = key.hashCode();
-        return Math.floorMod(hashcode,indexBound);
+    private int reducedHashFunction(int hashcode,int indexBound) {
+        return spreader.spread(hashcode) & indexBound;
     }
 }
@@ -0,0 +1,325 @@
+package hashmap;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ *  An open-addressing hash table. Instead of a bucket Collection and a Node per
+ *  entry, keys, values and cached hash codes live in three parallel arrays, and
+ *  collisions are resolved with Robin Hood linear probing: an entry that is
+ *  further from its home slot takes the place of one that is closer. This keeps
+ *  probe sequences short and lets unsuccessful lookups stop early.
+ *
+ *  Removal uses backward-shift deletion, so no tombstones are ever left behind.
+ *  The table capacity is always a power of two.
+ *
+ *  Assumes null keys will never be inserted.
+ */
+public class MyHashMapOpenAddressing<K, V> implements Map61B<K, V> {
+    /** Hash code stored in a slot that holds no entry. */
+    private static final int EMPTY = 0;
+
+    /* Instance Variables */
+    private Object[] keys;
+    private Object[] values;
+    /** Cached (spread) hash code of each slot, EMPTY if the slot is free. */
+    private int[] hashes;
+    private int mask;
+    private final double maxLoad;
+    private int threshold;
+    private int size;
+
+    /** Constructors */
+    public MyHashMapOpenAddressing() {
+        this(16, 0.75);
+    }
+
+    public MyHashMapOpenAddressing(int initialSize) {
+        this(initialSize, 0.75);
+    }
+
+    /**
+     * MyHashMapOpenAddressing constructor that creates backing arrays of at least
+     * initialSize slots. The load factor (# items / # slots) should always be <= maxLoad
+     *
+     * @param initialSize initial size of backing arrays, rounded up to a power of two
+     * @param maxLoad maximum load factor, must be in (0, 1)
+     */
+    public MyHashMapOpenAddressing(int initialSize, double maxLoad) {
+        if (maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException("maxLoad must be in (0, 1): " + maxLoad);
+        }
+        this.maxLoad = maxLoad;
+        allocate(tableSizeFor(Math.max(initialSize, 2)));
+    }
+
+    /** Returns the smallest power of two that is >= n. */
+    private static int tableSizeFor(int n) {
+        int highest = Integer.highestOneBit(n);
+        return highest == n ? n : highest << 1;
+    }
+
+    /** Replaces the backing arrays with empty ones of the given capacity. */
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) Math.min(capacity * maxLoad, capacity - 1);
+    }
+
+    /**
+     * Returns the hash stored for KEY. The high bits are folded into the low ones
+     * because only the low bits pick a slot, and EMPTY is never returned.
+     */
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h == EMPTY ? 1 : h;
+    }
+
+    /** Returns how far the entry with hash H sitting in SLOT is from its home slot. */
+    private int probeDistance(int h, int slot) {
+        return (slot - (h & mask)) & mask;
+    }
+
+    /** Returns the slot holding KEY, or -1 if the key is absent. */
+    private int indexOf(Object key) {
+        int h = hash(key);
+        int slot = h & mask;
+        for (int dist = 0; ; dist++) {
+            int slotHash = hashes[slot];
+            // An empty slot or a "richer" entry means the key can't be further along
+            if (slotHash == EMPTY || probeDistance(slotHash, slot) < dist) {
+                return -1;
+            }
+            if (slotHash == h && keys[slot].equals(key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(hashes, EMPTY);
+        size = 0;
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return key != null && indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = indexOf(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Puts a new item into the table. If there's already one, update it. */
+    @Override
+    public void put(K key, V value) {
+        if (key == null) {
+            return;
+        }
+        if (size >= threshold) {
+            resize(keys.length * 2);
+        }
+        insert(hash(key), key, value);
+    }
+
+    /**
+     * Robin Hood insertion. While the carried entry is still the caller's, an
+     * equal key means an update. Once it has been swapped into the table, the
+     * entry being carried is an evicted one, which is known to be unique.
+     */
+    private void insert(int h, Object key, Object value) {
+        int slot = h & mask;
+        boolean carryingNewKey = true;
+        for (int dist = 0; ; dist++) {
+            int slotHash = hashes[slot];
+            if (slotHash == EMPTY) {
+                hashes[slot] = h;
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                return;
+            }
+            if (carryingNewKey && slotHash == h && keys[slot].equals(key)) {
+                values[slot] = value; // updates this value
+                return;
+            }
+            int slotDist = probeDistance(slotHash, slot);
+            if (slotDist < dist) {
+                // Takes from the rich: the new entry settles here, the old one moves on
+                Object evictedKey = keys[slot];
+                Object evictedValue = values[slot];
+                hashes[slot] = h;
+                keys[slot] = key;
+                values[slot] = value;
+                h = slotHash;
+                key = evictedKey;
+                value = evictedValue;
+                dist = slotDist;
+                carryingNewKey = false;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /** Rehashes every entry into arrays of the given capacity, reusing cached hashes. */
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != EMPTY) {
+                insert(oldHashes[i], oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    /** Resizes once so that EXPECTEDSIZE entries fit without another resize. */
+    public void ensureCapacity(int expectedSize) {
+        int capacity = keys.length;
+        while ((int) Math.min(capacity * maxLoad, capacity - 1) < expectedSize) {
+            capacity *= 2;
+        }
+        if (capacity > keys.length) {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * Copies every mapping of OTHER into this map after a single resize. When
+     * OTHER is also open-addressed, its slots are copied with their cached
+     * hashes, so neither get() nor hashCode() is called on its keys.
+     */
+    @Override
+    public void putAll(Map61B<K, V> other) {
+        if (other == this) {
+            return;  // Every mapping is already here; presizing would only double the table
+        }
+        ensureCapacity(size + other.size());
+        if (other instanceof MyHashMapOpenAddressing) {
+            MyHashMapOpenAddressing<K, V> source = (MyHashMapOpenAddressing<K, V>) other;
+            for (int i = 0; i < source.hashes.length; i++) {
+                if (source.hashes[i] != EMPTY) {
+                    insert(source.hashes[i], source.keys[i], source.values[i]);
+                }
+            }
+        } else {
+            for (K key : other) {
+                insert(hash(key), key, other.get(key));
+            }
+        }
+    }
+
+    @Override
+    public Set<K> keySet() {
+        Set<K> set = new HashSet<>();
+        for (K key : this) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            return null;
+        }
+        int slot = indexOf(key);
+        if (slot < 0) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        V value = (V) values[slot];
+        removeAt(slot);
+        return value;
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        if (key == null) {
+            return null;
+        }
+        int slot = indexOf(key);
+        if (slot < 0 || !Objects.equals(values[slot], value)) {
+            return null;
+        }
+        removeAt(slot);
+        return value;
+    }
+
+    /**
+     * Empties SLOT and shifts the following entries of the probe run back by
+     * one until an empty slot or an entry already in its home slot is reached.
+     */
+    private void removeAt(int slot) {
+        int next = (slot + 1) & mask;
+        while (hashes[next] != EMPTY && probeDistance(hashes[next], next) > 0) {
+            hashes[slot] = hashes[next];
+            keys[slot] = keys[next];
+            values[slot] = values[next];
+            slot = next;
+            next = (next + 1) & mask;
+        }
+        hashes[slot] = EMPTY;
+        keys[slot] = null;
+        values[slot] = null;
+        size--;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return new Iterator<>() {
+            int slot = nextOccupied(0);
+
+            /** Returns the first occupied slot at or after FROM, or the capacity if none. */
+            private int nextOccupied(int from) {
+                while (from < hashes.length && hashes[from] == EMPTY) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return slot < hashes.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public K next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                K key = (K) keys[slot];
+                slot = nextOccupied(slot + 1);
+                return key;
+            }
+        };
+    }
+}
@@ -0,0 +1,161 @@
+package hashmap;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.TreeMap;
+
+/**
+ * Hash Table with buckets that start out as Array Lists and turn into
+ * balanced trees once they grow long. Keys colliding on purpose (or through
+ * a poor hashCode()) then cost O(log n) per lookup instead of O(n).
+ *
+ * A bucket only becomes a tree if all of its keys are Comparable and of the
+ * same class, and compareTo must be consistent with equals. Buckets holding
+ * other keys simply stay lists, so any key type can still be used.
+ */
+public class MyHashMapTreeBuckets<K, V> extends MyHashMap<K, V> {
+    /** A list bucket becomes a tree once it holds more than this many nodes */
+    static final int TREEIFY_THRESHOLD = 8;
+    /** A tree bucket goes back to a list once it holds fewer than this many nodes */
+    static final int UNTREEIFY_THRESHOLD = 6;
+
+    /**
+     * Constructor that creates a backing array with default
+     * initial size and load factor
+     */
+    public MyHashMapTreeBuckets() {
+        super();
+    }
+
+    /**
+     * Constructor that creates a backing array of initialSize
+     * and default load factor
+     *
+     * @param initialSize initial size of backing array
+     */
+    public MyHashMapTreeBuckets(int initialSize) {
+        super(initialSize);
+    }
+
+    /**
+     * Constructor that creates a backing array of initialSize.
+     * The load factor (# items / # buckets) should always be <= loadFactor
+     *
+     * @param initialSize initial size of backing array
+     * @param maxLoad maximum load factor
+     */
+    public MyHashMapTreeBuckets(int initialSize, double maxLoad) {
+        super(initialSize, maxLoad);
+    }
+
+    @Override
+    protected Collection<Node> createBucket() {
+        return new TreeifyingBucket();
+    }
+
+    @Override
+    protected Node findInBucket(Collection<Node> bucket, K key) {
+        return ((TreeifyingBucket) bucket).find(key);
+    }
+
+    /**
+     * Returns true if every node in NODES has a Comparable key of one class,
+     * so a TreeMap with natural ordering can hold them all.
+     */
+    private boolean mutuallyComparable(ArrayList<Node> nodes) {
+        Class<?> keyClass = nodes.get(0).key.getClass();
+        if (!(nodes.get(0).key instanceof Comparable)) {
+            return false;
+        }
+        for (Node node : nodes) {
+            if (node.key.getClass() != keyClass) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** A bucket kept as a list while short and as a TreeMap from key to node while long. */
+    private class TreeifyingBucket extends AbstractCollection<Node> {
+        private ArrayList<Node> list = new ArrayList<>();
+        private TreeMap<K, Node> tree;
+        /** The class of every key in tree, while the bucket is a tree */
+        private Class<?> keyClass;
+
+        /** Returns the node whose key equals KEY, or null if there is none. */
+        Node find(K key) {
+            if (tree != null) {
+                if (key.getClass() != keyClass) {
+                    return null; // keys of another class can't be in this tree
+                }
+                return tree.get(key);
+            }
+            for (Node node : list) {
+                if (node.key.equals(key)) {
+                    return node;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean add(Node node) {
+            if (tree != null) {
+                if (node.key.getClass() == keyClass) {
+                    tree.put(node.key, node);
+                    return true;
+                }
+                untreeify();
+            }
+            list.add(node);
+            if (list.size() > TREEIFY_THRESHOLD && mutuallyComparable(list)) {
+                treeify();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (tree == null) {
+                return list.remove(o);
+            }
+            @SuppressWarnings("unchecked")
+            Node node = (Node) o;
+            if (find(node.key) != node) {
+                return false;
+            }
+            tree.remove(node.key);
+            if (tree.size() < UNTREEIFY_THRESHOLD) {
+                untreeify();
+            }
+            return true;
+        }
+
+        private void treeify() {
+            keyClass = list.get(0).key.getClass();
+            tree = new TreeMap<>();
+            for (Node node : list) {
+                tree.put(node.key, node);
+            }
+            list = null;
+        }
+
+        private void untreeify() {
+            list = new ArrayList<>(tree.values());
+            tree = null;
+            keyClass = null;
+        }
+
+        @Override
+        public Iterator<Node> iterator() {
+            return tree != null ? tree.values().iterator() : list.iterator();
+        }
+
+        @Override
+        public int size() {
+            return tree != null ? tree.size() : list.size();
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package hashmap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ *  A String to int map whose entries live outside the Java heap. Each entry is
+ *  a record in a direct ByteBuffer arena: the int value, the length of the key
+ *  in UTF-8 and the key's UTF-8 bytes. The only on-heap structure is a long[]
+ *  index, open-addressed with linear probing, whose slots pack the key's hash
+ *  in the high half and the record's arena offset + 1 in the low half. There
+ *  are no Integer, String or node objects per entry for the collector to trace.
+ *
+ *  Removed records are left in the arena as garbage and reclaimed by compacting
+ *  the arena the next time it runs out of room. Index slots are freed with
+ *  backward-shift deletion, so no tombstones are left behind.
+ *
+ *  Null keys are ignored and null values are rejected, as there is no int to
+ *  store for them. Keys must be valid UTF-16: an unpaired surrogate would not
+ *  survive the round trip through UTF-8. The arena is limited to 2GB.
+ */
+public class OffHeapStringIntMap implements Map61B<String, Integer> {
+    /** Index slot that refers to no record. */
+    private static final long EMPTY = 0;
+    /** Bytes of a record before its key: the value, then the key length. */
+    private static final int HEADER = 2 * Integer.BYTES;
+    /** Arena bytes reserved per initial slot, a guess at a short key's record. */
+    private static final int BYTES_PER_SLOT = 24;
+    /** Largest arena that int offsets can address. */
+    private static final long MAX_ARENA = Integer.MAX_VALUE - 8;
+
+    /* Instance Variables */
+    private ByteBuffer arena;
+    /** Bytes of the arena held by removed or replaced records */
+    private int deadBytes;
+    private long[] slots;
+    private int mask;
+    private final double maxLoad;
+    private int threshold;
+    private int size;
+
+    /** Constructors */
+    public OffHeapStringIntMap() {
+        this(16, 0.75);
+    }
+
+    public OffHeapStringIntMap(int initialSize) {
+        this(initialSize, 0.75);
+    }
+
+    /**
+     * OffHeapStringIntMap constructor that creates an index of at least
+     * initialSize slots and an arena sized for that many short keys.
+     * The load factor (# items / # slots) should always be <= maxLoad
+     *
+     * @param initialSize initial size of the index, rounded up to a power of two
+     * @param maxLoad maximum load factor, must be in (0, 1)
+     */
+    public OffHeapStringIntMap(int initialSize, double maxLoad) {
+        if (maxLoad <= 0 || maxLoad >= 1) {
+            throw new IllegalArgumentException("maxLoad must be in (0, 1): " + maxLoad);
+        }
+        this.maxLoad = maxLoad;
+        int capacity = tableSizeFor(Math.max(initialSize, 2));
+        allocateIndex(capacity);
+        arena = allocateArena((int) Math.min(MAX_ARENA, (long) capacity * BYTES_PER_SLOT));
+    }
+
+    /** Returns the smallest power of two that is >= n. */
+    private static int tableSizeFor(int n) {
+        int highest = Integer.highestOneBit(n);
+        return highest == n ? n : highest << 1;
+    }
+
+    private static ByteBuffer allocateArena(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    /** Replaces the index with an empty one of the given capacity. */
+    private void allocateIndex(int capacity) {
+        slots = new long[capacity];
+        mask = capacity - 1;
+        threshold = (int) Math.min(capacity * maxLoad, capacity - 1);
+    }
+
+    /** Returns the index hash of KEY, with the high bits folded into the low ones. */
+    private static int hash(String key) {
+        return HashSpreader.XOR_SHIFT.spread(key.hashCode());
+    }
+
+    private static long slotOf(int hash, int offset) {
+        return ((long) hash << 32) | (offset + 1L);
+    }
+
+    private static int hashOf(long slot) {
+        return (int) (slot >>> 32);
+    }
+
+    private static int offsetOf(long slot) {
+        return (int) slot - 1;
+    }
+
+    private int keyLength(int offset) {
+        return arena.getInt(offset + Integer.BYTES);
+    }
+
+    /** Returns true if the record at OFFSET holds the key whose UTF-8 form is BYTES. */
+    private boolean keyEquals(int offset, byte[] bytes) {
+        if (keyLength(offset) != bytes.length) {
+            return false;
+        }
+        int start = offset + HEADER;
+        for (int i = 0; i < bytes.length; i++) {
+            if (arena.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the slot whose record holds BYTES, or -1 if the key is absent. */
+    private int indexOf(int h, byte[] bytes) {
+        for (int i = h & mask; ; i = (i + 1) & mask) {
+            long slot = slots[i];
+            if (slot == EMPTY) {
+                return -1;
+            }
+            if (hashOf(slot) == h && keyEquals(offsetOf(slot), bytes)) {
+                return i;
+            }
+        }
+    }
+
+    private static byte[] encode(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(slots, EMPTY);
+        arena.clear();
+        deadBytes = 0;
+        size = 0;
+    }
+
+    @Override
+    public boolean containsKey(String key) {
+        return key != null && indexOf(hash(key), encode(key)) >= 0;
+    }
+
+    @Override
+    public Integer get(String key) {
+        if (key == null) {
+            return null;
+        }
+        int i = indexOf(hash(key), encode(key));
+        return i < 0 ? null : arena.getInt(offsetOf(slots[i]));
+    }
+
+    /** Returns the value mapped to KEY, or ABSENT if there is none, without boxing. */
+    public int getInt(String key, int absent) {
+        if (key == null) {
+            return absent;
+        }
+        int i = indexOf(hash(key), encode(key));
+        return i < 0 ? absent : arena.getInt(offsetOf(slots[i]));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Puts a new item into the map. If there's already one, update it. */
+    @Override
+    public void put(String key, Integer value) {
+        if (value == null) {
+            throw new IllegalArgumentException("null values can't be stored off-heap");
+        }
+        putInt(key, value);
+    }
+
+    /** Same as put, without boxing VALUE. */
+    public void putInt(String key, int value) {
+        if (key == null) {
+            return;
+        }
+        int h = hash(key);
+        byte[] bytes = encode(key);
+        int i = indexOf(h, bytes);
+        if (i >= 0) {
+            arena.putInt(offsetOf(slots[i]), value); // updates this value in place
+            return;
+        }
+        if (size >= threshold) {
+            resizeIndex(slots.length * 2);
+        }
+        int offset = append(bytes, value);
+        int free = h & mask;
+        while (slots[free] != EMPTY) {
+            free = (free + 1) & mask;
+        }
+        slots[free] = slotOf(h, offset);
+        size++;
+    }
+
+    /** Writes a new record to the end of the arena and returns its offset. */
+    private int append(byte[] bytes, int value) {
+        int need = HEADER + bytes.length;
+        if (arena.remaining() < need) {
+            reserve(need);
+        }
+        int offset = arena.position();
+        arena.putInt(value);
+        arena.putInt(bytes.length);
+        arena.put(bytes);
+        return offset;
+    }
+
+    /**
+     * Makes room for NEED more bytes. The arena is compacted into a new buffer,
+     * which is twice as large unless at least half of the old one was garbage.
+     */
+    private void reserve(int need) {
+        long live = arena.position() - deadBytes;
+        long capacity = arena.capacity();
+        if (deadBytes < arena.position() / 2) {
+            capacity *= 2;
+        }
+        while (capacity - live < need) {
+            capacity *= 2;
+        }
+        if (live + need > MAX_ARENA) {
+            throw new IllegalStateException("arena can't hold more than " + MAX_ARENA + " bytes");
+        }
+        relocate((int) Math.min(capacity, MAX_ARENA));
+    }
+
+    /** Copies every live record into a fresh arena of CAPACITY bytes, updating the index. */
+    private void relocate(int capacity) {
+        ByteBuffer old = arena;
+        arena = allocateArena(capacity);
+        for (int i = 0; i < slots.length; i++) {
+            long slot = slots[i];
+            if (slot != EMPTY) {
+                int offset = offsetOf(slot);
+                int length = HEADER + old.getInt(offset + Integer.BYTES);
+                slots[i] = slotOf(hashOf(slot), arena.position());
+                arena.put(old.slice(offset, length));
+            }
+        }
+        deadBytes = 0;
+    }
+
+    /** Rehashes every slot into an index of the given capacity, reusing stored hashes. */
+    private void resizeIndex(int capacity) {
+        long[] oldSlots = slots;
+        allocateIndex(capacity);
+        for (long slot : oldSlots) {
+            if (slot != EMPTY) {
+                int free = hashOf(slot) & mask;
+                while (slots[free] != EMPTY) {
+                    free = (free + 1) & mask;
+                }
+                slots[free] = slot;
+            }
+        }
+    }
+
+    /** Returns the bytes of native memory reserved by the arena. */
+    public long offHeapBytes() {
+        return arena.capacity();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        Set<String> set = new HashSet<>();
+        for (String key : this) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Override
+    public Integer remove(String key) {
+        if (key == null) {
+            return null;
+        }
+        int i = indexOf(hash(key), encode(key));
+        if (i < 0) {
+            return null;
+        }
+        int value = arena.getInt(offsetOf(slots[i]));
+        removeAt(i);
+        return value;
+    }
+
+    @Override
+    public Integer remove(String key, Integer value) {
+        if (key == null || value == null) {
+            return null;
+        }
+        int i = indexOf(hash(key), encode(key));
+        if (i < 0 || arena.getInt(offsetOf(slots[i])) != value) {
+            return null;
+        }
+        removeAt(i);
+        return value;
+    }
+
+    /**
+     * Marks the record of slot I as garbage and empties the slot. Later slots of
+     * the probe run are shifted back into the hole whenever their probe sequence
+     * passes through it, so lookups never stop early at the freed slot.
+     */
+    private void removeAt(int i) {
+        int offset = offsetOf(slots[i]);
+        deadBytes += HEADER + keyLength(offset);
+        for (int j = (i + 1) & mask; slots[j] != EMPTY; j = (j + 1) & mask) {
+            int distance = (j - hashOf(slots[j])) & mask;
+            if (distance >= ((j - i) & mask)) {
+                slots[i] = slots[j];
+                i = j;
+            }
+        }
+        slots[i] = EMPTY;
+        size--;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<>() {
+            int i = nextOccupied(0);
+
+            /** Returns the first occupied slot at or after FROM, or the capacity if none. */
+            private int nextOccupied(int from) {
+                while (from < slots.length && slots[from] == EMPTY) {
+                    from++;
+                }
+                return from;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return i < slots.length;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int offset = offsetOf(slots[i]);
+                byte[] bytes = new byte[keyLength(offset)];
+                arena.get(offset + HEADER, bytes);
+                i = nextOccupied(i + 1);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+}
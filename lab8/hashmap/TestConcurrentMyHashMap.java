@@ -0,0 +1,77 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/** Tests of the lock-striped hash table, single- and multi-threaded. */
+public class TestConcurrentMyHashMap {
+
+    @Test
+    public void sanityTests() {
+        TestMyHashMap.sanityClearTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.sanityContainsKeyTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.sanityGetTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.sanitySizeTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.sanityPutTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.sanityKeySetTest(new ConcurrentMyHashMap<>());
+        TestMyHashMap.functionalityTest(new ConcurrentMyHashMap<>(), new ConcurrentMyHashMap<>());
+        // A single stripe must behave the same way
+        TestMyHashMap.sanityKeySetTest(new ConcurrentMyHashMap<>(2, 0.75, 1));
+    }
+
+    @Test
+    public void testRemove() {
+        ConcurrentMyHashMap<String, String> q = new ConcurrentMyHashMap<>();
+        q.put("c", "a");
+        q.put("b", "a");
+        q.put("a", "a");
+        assertEquals("a", q.remove("c"));
+        assertFalse(q.containsKey("c"));
+        assertNull(q.remove("b", "x"));
+        assertEquals("a", q.remove("b", "a"));
+        assertEquals(1, q.size());
+    }
+
+    /**
+     * Threads insert disjoint key ranges while others remove and read, so
+     * segments resize under contention. Every surviving key must be intact.
+     */
+    @Test
+    public void concurrentPutRemoveTest() throws InterruptedException {
+        ConcurrentMyHashMap<Integer, Integer> map = new ConcurrentMyHashMap<>(2, 0.75, 4);
+        int threads = 8;
+        int perThread = 20000;
+        List<Thread> workers = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int t = 0; t < threads; t++) {
+            int base = t * perThread;
+            workers.add(new Thread(() -> {
+                for (int i = base; i < base + perThread; i++) {
+                    map.put(i, i);
+                    assertEquals(i, (int) map.get(i));
+                    if (i % 2 == 1) {
+                        assertEquals(i, (int) map.remove(i));
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            // Assertion failures in workers would otherwise only be printed
+            worker.setUncaughtExceptionHandler((thread, e) -> failure.compareAndSet(null, e));
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertNull(failure.get());
+        assertEquals(threads * perThread / 2, map.size());
+        for (int i = 0; i < threads * perThread; i++) {
+            assertEquals(i % 2 == 0 ? Integer.valueOf(i) : null, map.get(i));
+        }
+        assertEquals(threads * perThread / 2, map.keySet().size());
+    }
+}
@@ -2,7 +2,10 @@ package hashmap;
 
 import static org.junit.Assert.*;
 import org.junit.jupiter.api.Test;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 /**
@@ -26,7 +29,7 @@ public class TestMyHashMap {
         sanityClearTest(new MyHashMap<>());
     }
 
-    public static void sanityClearTest(MyHashMap<String, Integer> b) {
+    public static void sanityClearTest(Map61B<String, Integer> b) {
         for (int i = 0; i < 455; i++) {
             b.put("hi" + i, 1);
             //make sure put is working via containsKey and get
@@ -46,7 +49,7 @@ public class TestMyHashMap {
         sanityContainsKeyTest(new MyHashMap<>());
     }
 
-    public static void sanityContainsKeyTest(MyHashMap<String, Integer> b) {
+    public static void sanityContainsKeyTest(Map61B<String, Integer> b) {
         assertFalse(b.containsKey("waterYouDoingHere"));
         b.put("waterYouDoingHere", 0);
         assertTrue(b.containsKey("waterYouDoingHere"));
@@ -58,7 +61,7 @@ public class TestMyHashMap {
         sanityGetTest(new MyHashMap<>());
     }
 
-    public static void sanityGetTest(MyHashMap<String, Integer> b) {
+    public static void sanityGetTest(Map61B<String, Integer> b) {
         assertEquals(null, b.get("starChild"));
         b.put("starChild", 5);
         assertNotEquals(null, b.get("starChild"));
@@ -73,7 +76,7 @@ public class TestMyHashMap {
         sanitySizeTest(new MyHashMap<>());
     }
 
-    public static void sanitySizeTest(MyHashMap<String, Integer> b) {
+    public static void sanitySizeTest(Map61B<String, Integer> b) {
         assertEquals(0, b.size());
         b.put("hi", 1);
         assertEquals(1, b.size());
@@ -89,7 +92,7 @@ public class TestMyHashMap {
         sanityPutTest(new MyHashMap<>());
     }
 
-    public static void sanityPutTest(MyHashMap<String, Integer> b) {
+    public static void sanityPutTest(Map61B<String, Integer> b) {
         b.put("hi", 1);
         assertTrue(b.containsKey("hi") && b.get("hi") != null);
     }
@@ -99,7 +102,7 @@ public class TestMyHashMap {
         sanityKeySetTest(new MyHashMap<>());
     }
 
-    public static void sanityKeySetTest(MyHashMap<String, Integer> b) {
+    public static void sanityKeySetTest(Map61B<String, Integer> b) {
         HashSet<String> values = new HashSet<String>();
         for (int i = 0; i < 455; i++) {
             b.put("hi" + i, 1);
@@ -111,14 +114,52 @@ public class TestMyHashMap {
         assertTrue(keySet.containsAll(values));
     }
 
+    // Same sanity checks with buckets migrated gradually on resize.
+    @Test
+    public void incrementalResizeTest() {
+        sanityClearTest(new MyHashMap<>(16, 0.75, true));
+        sanitySizeTest(new MyHashMap<>(16, 0.75, true));
+        sanityKeySetTest(new MyHashMap<>(16, 0.75, true));
+        functionalityTest(new MyHashMap<>(16, 0.75, true), new MyHashMap<>(16, 0.75, true));
+
+        // Mixes puts and removes so that many of them land mid-migration
+        MyHashMap<Integer, Integer> b = new MyHashMap<>(4, 0.75, true);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random r = new Random(8);
+        for (int i = 0; i < 20000; i++) {
+            int key = r.nextInt(4000);
+            if (r.nextInt(4) == 0) {
+                assertEquals(expected.remove(key), b.remove(key));
+            } else {
+                expected.put(key, i);
+                b.put(key, i);
+            }
+            assertEquals(expected.get(key), b.get(key));
+        }
+        assertEquals(expected.size(), b.size());
+        assertEquals(expected.keySet(), b.keySet());
+    }
+
+    // Same sanity checks with each hash spreader and a non-power-of-two size.
+    @Test
+    public void hashSpreaderTest() {
+        for (HashSpreader spreader : new HashSpreader[] {
+                HashSpreader.IDENTITY, HashSpreader.XOR_SHIFT, HashSpreader.murmur(61)}) {
+            sanityClearTest(new MyHashMap<>(10, 0.75, false, spreader));
+            sanityKeySetTest(new MyHashMap<>(1, 0.75, false, spreader));
+            functionalityTest(new MyHashMap<>(3, 0.75, false, spreader),
+                    new MyHashMap<>(3, 0.75, false, spreader));
+        }
+    }
+
     // Test for general functionality and that the properties of Maps hold.
     @Test
     public void functionalityTest() {
         functionalityTest(new MyHashMap<>(), new MyHashMap<>());
     }
 
-    public static void functionalityTest(MyHashMap<String, String> dictionary,
-                                   MyHashMap<String, Integer> studentIDs) {
+    public static void functionalityTest(Map61B<String, String> dictionary,
+                                   Map61B<String, Integer> studentIDs) {
         assertEquals(0, dictionary.size());
 
         // can put objects in dictionary and get them
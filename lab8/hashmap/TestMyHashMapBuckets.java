@@ -1,6 +1,7 @@
 package hashmap;
 
 import org.junit.Test;
+import speed.StringUtils;
 import static org.junit.Assert.*;
 
 /**
@@ -36,6 +37,11 @@ public class TestMyHashMapBuckets {
         b = new MyHashMapPQBuckets<>();
         c = new MyHashMapPQBuckets<>();
         d = new MyHashMapPQBuckets<>();
+
+        a = new MyHashMapTreeBuckets<>();
+        b = new MyHashMapTreeBuckets<>();
+        c = new MyHashMapTreeBuckets<>();
+        d = new MyHashMapTreeBuckets<>();
     }
 
     //assumes put/size/containsKey/get work
@@ -46,6 +52,7 @@ public class TestMyHashMapBuckets {
         TestMyHashMap.sanityClearTest(new MyHashMapTSBuckets<>());
         TestMyHashMap.sanityClearTest(new MyHashMapHSBuckets<>());
         TestMyHashMap.sanityClearTest(new MyHashMapPQBuckets<>());
+        TestMyHashMap.sanityClearTest(new MyHashMapTreeBuckets<>());
     }
 
     // assumes put works
@@ -56,6 +63,7 @@ public class TestMyHashMapBuckets {
         TestMyHashMap.sanityContainsKeyTest(new MyHashMapTSBuckets<>());
         TestMyHashMap.sanityContainsKeyTest(new MyHashMapHSBuckets<>());
         TestMyHashMap.sanityContainsKeyTest(new MyHashMapPQBuckets<>());
+        TestMyHashMap.sanityContainsKeyTest(new MyHashMapTreeBuckets<>());
     }
 
     // assumes put works
@@ -66,6 +74,7 @@ public class TestMyHashMapBuckets {
         TestMyHashMap.sanityGetTest(new MyHashMapTSBuckets<>());
         TestMyHashMap.sanityGetTest(new MyHashMapHSBuckets<>());
         TestMyHashMap.sanityGetTest(new MyHashMapPQBuckets<>());
+        TestMyHashMap.sanityGetTest(new MyHashMapTreeBuckets<>());
     }
 
     // assumes put works
@@ -76,6 +85,7 @@ public class TestMyHashMapBuckets {
         TestMyHashMap.sanitySizeTest(new MyHashMapTSBuckets<>());
         TestMyHashMap.sanitySizeTest(new MyHashMapHSBuckets<>());
         TestMyHashMap.sanitySizeTest(new MyHashMapPQBuckets<>());
+        TestMyHashMap.sanitySizeTest(new MyHashMapTreeBuckets<>());
     }
 
     //assumes get/containskey work
@@ -86,6 +96,7 @@ public class TestMyHashMapBuckets {
         TestMyHashMap.sanityPutTest(new MyHashMapTSBuckets<>());
         TestMyHashMap.sanityPutTest(new MyHashMapHSBuckets<>());
         TestMyHashMap.sanityPutTest(new MyHashMapPQBuckets<>());
+        TestMyHashMap.sanityPutTest(new MyHashMapTreeBuckets<>());
     }
 
     @Test
@@ -95,6 +106,7 @@ public class TestMyHashMapBuckets {
         TestMyHashMap.sanityKeySetTest(new MyHashMapTSBuckets<>());
         TestMyHashMap.sanityKeySetTest(new MyHashMapHSBuckets<>());
         TestMyHashMap.sanityKeySetTest(new MyHashMapPQBuckets<>());
+        TestMyHashMap.sanityKeySetTest(new MyHashMapTreeBuckets<>());
     }
 
     // Test for general functionality and that the properties of Maps hold.
@@ -105,5 +117,81 @@ public class TestMyHashMapBuckets {
         TestMyHashMap.functionalityTest(new MyHashMapTSBuckets<>(), new MyHashMapTSBuckets<>());
         TestMyHashMap.functionalityTest(new MyHashMapHSBuckets<>(), new MyHashMapHSBuckets<>());
         TestMyHashMap.functionalityTest(new MyHashMapPQBuckets<>(), new MyHashMapPQBuckets<>());
+        TestMyHashMap.functionalityTest(new MyHashMapTreeBuckets<>(), new MyHashMapTreeBuckets<>());
+    }
+
+    // Keys sharing one hash code must survive treeifying and untreeifying.
+    @Test
+    public void treeBucketCollisionTest() {
+        MyHashMapTreeBuckets<String, Integer> b = new MyHashMapTreeBuckets<>();
+        String[] keys = collidingKeys(6);
+        for (int i = 0; i < keys.length; i++) {
+            b.put(keys[i], i);
+        }
+        int[] histogram = b.bucketLengthHistogram();
+        assertEquals(65, histogram.length);
+        assertEquals(1, histogram[64]);
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, (int) b.get(keys[i]));
+        }
+        for (int i = 0; i < keys.length - 2; i++) {
+            assertEquals(i, (int) b.remove(keys[i]));
+            assertFalse(b.containsKey(keys[i]));
+        }
+        assertEquals(2, b.size());
+        assertEquals(62, (int) b.get(keys[62]));
+        assertEquals(63, (int) b.get(keys[63]));
+        assertEquals(2, b.keySet().size());
+    }
+
+    // A key of another class landing in a tree bucket turns it back into a list.
+    @Test
+    public void treeBucketMixedKeysTest() {
+        MyHashMapTreeBuckets<Object, Integer> b = new MyHashMapTreeBuckets<>();
+        String[] keys = collidingKeys(4);
+        for (int i = 0; i < keys.length; i++) {
+            b.put(keys[i], i);
+        }
+        assertEquals(1, b.bucketLengthHistogram()[keys.length]);
+        for (int i = 0; i < 3; i++) {
+            b.put(new Colliding(i, keys[0].hashCode()), -i);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, (int) b.get(keys[i]));
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals(-i, (int) b.get(new Colliding(i, keys[0].hashCode())));
+        }
+        assertEquals(keys.length + 3, b.size());
+    }
+
+    /** Returns all 2^BLOCKS colliding strings of StringUtils.collidingString. */
+    private static String[] collidingKeys(int blocks) {
+        String[] keys = new String[1 << blocks];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = StringUtils.collidingString(i, blocks);
+        }
+        return keys;
+    }
+
+    /** A key that is not Comparable and has a chosen hash code. */
+    private static class Colliding {
+        private final int id;
+        private final int hash;
+
+        Colliding(int id, int hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Colliding && ((Colliding) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
     }
 }
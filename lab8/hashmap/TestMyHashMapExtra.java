@@ -3,6 +3,13 @@ package hashmap;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+
 /** Tests of optional parts of lab 8. */
 public class TestMyHashMapExtra {
 
@@ -49,4 +56,199 @@ public class TestMyHashMapExtra {
         assertTrue(q.containsKey("b"));
         assertTrue(q.containsKey("f"));
     }
+
+    /**
+     * Shrink Test
+     * Removing most items shrinks the table; the rest must stay reachable,
+     * including after trimToSize() and after clear() reuses the table.
+     */
+    @Test
+    public void testShrinkAndTrim() {
+        for (boolean incremental : new boolean[] {false, true}) {
+            MyHashMap<Integer, Integer> q = new MyHashMap<>(16, 0.75, incremental);
+            for (int i = 0; i < 10000; i++) {
+                q.put(i, i);
+            }
+            for (int i = 10; i < 10000; i++) {
+                assertEquals(i, (int) q.remove(i));
+            }
+            assertEquals(10, q.size());
+            q.trimToSize();
+            for (int i = 0; i < 10000; i++) {
+                assertEquals(i < 10 ? Integer.valueOf(i) : null, q.get(i));
+            }
+            q.clear();
+            assertEquals(0, q.size());
+            assertFalse(q.iterator().hasNext());
+            q.put(3, 4);
+            assertEquals(4, (int) q.get(3));
+        }
+    }
+
+    /**
+     * putAll, getAll and removeAll must agree with put, get and remove for
+     * every map, whether the source map is of the same class or not.
+     */
+    @Test
+    public void testBulkOperations() {
+        List<Map61B<Integer, Integer>> maps = List.of(new MyHashMap<>(),
+                new MyHashMap<>(16, 0.75, true), new MyHashMapOpenAddressing<>());
+        for (Map61B<Integer, Integer> source : maps) {
+            for (int i = 0; i < 1000; i++) {
+                source.put(i, -i);
+            }
+        }
+        for (Map61B<Integer, Integer> source : maps) {
+            List<Map61B<Integer, Integer>> targets = List.of(new MyHashMap<>(),
+                    new MyHashMap<>(16, 0.75, true), new MyHashMapOpenAddressing<>());
+            for (Map61B<Integer, Integer> target : targets) {
+                for (int i = 500; i < 1500; i++) {
+                    target.put(i, i);
+                }
+                target.putAll(source);
+                assertEquals(1500, target.size());
+                target.putAll(target);
+                assertEquals(1500, target.size());
+
+                List<Integer> keys = new ArrayList<>();
+                for (int i = 0; i < 1600; i += 100) {
+                    keys.add(i);
+                }
+                List<Integer> values = target.getAll(keys);
+                for (int i = 0; i < keys.size(); i++) {
+                    int key = keys.get(i);
+                    if (key < 1500) {
+                        assertEquals(key < 1000 ? -key : key, (int) values.get(i));
+                    } else {
+                        assertNull(values.get(i));
+                    }
+                }
+
+                assertEquals(15, target.removeAll(keys));
+                assertEquals(1485, target.size());
+                assertNull(target.get(700));
+                assertEquals(-701, (int) target.get(701));
+                assertEquals(1485, target.removeAll(target.keySet()));
+                assertEquals(0, target.size());
+            }
+        }
+    }
+
+    /** removeAll(self) removes every key, also from maps that move entries on removal. */
+    @Test
+    public void testRemoveAllSelf() {
+        List<Map61B<Integer, Integer>> maps = List.of(new MyHashMap<>(),
+                new MyHashMap<>(16, 0.75, true), new MyHashMapLLBuckets<>(),
+                new MyHashMapTreeBuckets<>(), new MyHashMapOpenAddressing<>());
+        for (Map61B<Integer, Integer> map : maps) {
+            for (int i = 0; i < 100; i++) {
+                map.put(i, i);
+            }
+            assertEquals(100, map.removeAll(map));
+            assertEquals(0, map.size());
+            assertNull(map.get(42));
+        }
+    }
+
+    /** entryIterator() sees every pair once and setValue() writes through. */
+    @Test
+    public void testEntryIterator() {
+        MyHashMap<Integer, Integer> q = new MyHashMap<>(16, 0.75, true);
+        for (int i = 0; i < 1000; i++) {
+            q.put(i, i);
+        }
+        long keySum = 0;
+        Iterator<Map.Entry<Integer, Integer>> entries = q.entryIterator();
+        while (entries.hasNext()) {
+            Map.Entry<Integer, Integer> entry = entries.next();
+            assertEquals(entry.getKey(), entry.getValue());
+            keySum += entry.getKey();
+            entry.setValue(-entry.getKey());
+        }
+        assertEquals(999 * 1000 / 2, keySum);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(-i, (int) q.get(i));
+        }
+    }
+
+    /** keySet() is a live view: it follows later puts and removes from the map. */
+    @Test
+    public void testKeySetView() {
+        MyHashMap<String, Integer> q = new MyHashMap<>();
+        Set<String> keys = q.keySet();
+        q.put("a", 1);
+        q.put("b", 2);
+        assertEquals(2, keys.size());
+        assertTrue(keys.contains("a"));
+        assertFalse(keys.contains(3));
+        assertTrue(keys.remove("a"));
+        assertFalse(keys.remove("a"));
+        assertNull(q.get("a"));
+        assertEquals(1, q.size());
+        keys.clear();
+        assertEquals(0, q.size());
+    }
+
+    /**
+     * Removing through the keySet's iterator, removeIf and retainAll removes
+     * from the map, also while an incremental resize is migrating buckets.
+     */
+    @Test
+    public void testKeySetIteratorRemove() {
+        MyHashMap<Integer, Integer> q = new MyHashMap<>(16, 0.75, true);
+        for (int i = 0; i < 1000; i++) {
+            q.put(i, i);
+        }
+        Iterator<Integer> it = q.keySet().iterator();
+        assertThrows(IllegalStateException.class, it::remove);
+        while (it.hasNext()) {
+            if (it.next() % 2 == 0) {
+                it.remove();
+                assertThrows(IllegalStateException.class, it::remove);
+            }
+        }
+        assertEquals(500, q.size());
+        assertTrue(q.keySet().removeIf(k -> k % 3 == 0));
+        assertTrue(q.keySet().retainAll(Set.of(1, 5, 7, 8)));
+        assertEquals(Set.of(1, 5, 7), q.keySet());
+        assertNull(q.get(8));
+        assertEquals(7, (int) q.get(7));
+
+        Iterator<Map.Entry<Integer, Integer>> entries = q.entryIterator();
+        int removedKey = entries.next().getKey();
+        entries.remove();
+        assertEquals(2, q.size());
+        assertNull(q.get(removedKey));
+        q.put(removedKey, 0);
+        assertEquals(0, (int) q.get(removedKey));
+        assertEquals(3, q.size());
+    }
+
+    /**
+     * Parallel and sequential streams over the entries agree, and splitting the
+     * spliterator covers every entry exactly once.
+     */
+    @Test
+    public void testEntriesStream() {
+        MyHashMap<Integer, Integer> q = new MyHashMap<>(16, 0.75, true);
+        long expected = 0;
+        for (int i = 0; i < 100000; i++) {
+            q.put(i, i * 2);
+            expected += i * 2;
+        }
+        assertEquals(expected, q.entries().mapToLong(Map.Entry::getValue).sum());
+        assertEquals(expected, q.entries().parallel().mapToLong(Map.Entry::getValue).sum());
+        assertEquals(100000, q.entries().parallel().map(Map.Entry::getKey).distinct().count());
+
+        Spliterator<Map.Entry<Integer, Integer>> whole = q.entries().spliterator();
+        assertEquals(100000, whole.getExactSizeIfKnown());
+        Spliterator<Map.Entry<Integer, Integer>> half = whole.trySplit();
+        assertNotNull(half);
+        long[] counts = new long[2];
+        half.forEachRemaining(e -> counts[0]++);
+        while (whole.tryAdvance(e -> counts[1]++)) {
+            // counts entries one at a time
+        }
+        assertEquals(100000, counts[0] + counts[1]);
+    }
 }
@@ -0,0 +1,114 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/** Tests of the open-addressing hash table, reusing the TestMyHashMap sanity checks. */
+public class TestMyHashMapOpenAddressing {
+
+    @Test
+    public void sanityClearTest() {
+        TestMyHashMap.sanityClearTest(new MyHashMapOpenAddressing<>());
+    }
+
+    @Test
+    public void sanityContainsKeyTest() {
+        TestMyHashMap.sanityContainsKeyTest(new MyHashMapOpenAddressing<>());
+    }
+
+    @Test
+    public void sanityGetTest() {
+        TestMyHashMap.sanityGetTest(new MyHashMapOpenAddressing<>());
+    }
+
+    @Test
+    public void sanitySizeTest() {
+        TestMyHashMap.sanitySizeTest(new MyHashMapOpenAddressing<>());
+    }
+
+    @Test
+    public void sanityPutTest() {
+        TestMyHashMap.sanityPutTest(new MyHashMapOpenAddressing<>());
+    }
+
+    @Test
+    public void sanityKeySetTest() {
+        TestMyHashMap.sanityKeySetTest(new MyHashMapOpenAddressing<>());
+    }
+
+    @Test
+    public void functionalityTest() {
+        TestMyHashMap.functionalityTest(new MyHashMapOpenAddressing<>(), new MyHashMapOpenAddressing<>());
+    }
+
+    @Test
+    public void testRemove() {
+        MyHashMapOpenAddressing<String, String> q = new MyHashMapOpenAddressing<>();
+        q.put("c", "a");
+        q.put("b", "a");
+        q.put("a", "a");
+        q.put("d", "a");
+        q.put("e", "a");
+        assertEquals("a", q.remove("c"));
+        assertFalse(q.containsKey("c"));
+        assertTrue(q.containsKey("a"));
+        assertTrue(q.containsKey("b"));
+        assertTrue(q.containsKey("d"));
+        assertTrue(q.containsKey("e"));
+        assertNull(q.remove("e", "b"));
+        assertEquals("a", q.remove("e", "a"));
+        assertEquals(3, q.size());
+    }
+
+    /** Keys with equal hash codes must all survive probing, shifting and removal. */
+    @Test
+    public void collidingKeysTest() {
+        MyHashMapOpenAddressing<String, Integer> b = new MyHashMapOpenAddressing<>(4);
+        String[] keys = {"Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB"};
+        for (int i = 0; i < keys.length; i++) {
+            b.put(keys[i], i);
+        }
+        assertEquals(keys.length, b.size());
+        assertEquals(0, (int) b.remove("Aa"));
+        for (int i = 1; i < keys.length; i++) {
+            assertEquals(i, (int) b.get(keys[i]));
+        }
+    }
+
+    /** removeAll(self) removes every key even though removals shift entries back. */
+    @Test
+    public void removeAllSelfTest() {
+        MyHashMapOpenAddressing<Integer, Integer> b = new MyHashMapOpenAddressing<>();
+        for (int i = 0; i < 100; i++) {
+            b.put(i, i);
+        }
+        assertEquals(100, b.removeAll(b));
+        assertEquals(0, b.size());
+    }
+
+    /** Random puts and removes checked against java.util.HashMap. */
+    @Test
+    public void randomizedTest() {
+        MyHashMapOpenAddressing<Integer, Integer> b = new MyHashMapOpenAddressing<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 50000; i++) {
+            int key = r.nextInt(5000);
+            if (r.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), b.remove(key));
+            } else {
+                expected.put(key, i);
+                b.put(key, i);
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        for (int key = 0; key < 5000; key++) {
+            assertEquals(expected.get(key), b.get(key));
+        }
+        assertEquals(expected.keySet(), b.keySet());
+    }
+}
@@ -0,0 +1,106 @@
+package hashmap;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/** Tests of the off-heap String to int map, reusing the TestMyHashMap sanity checks. */
+public class TestOffHeapStringIntMap {
+
+    @Test
+    public void sanityClearTest() {
+        TestMyHashMap.sanityClearTest(new OffHeapStringIntMap());
+    }
+
+    @Test
+    public void sanityContainsKeyTest() {
+        TestMyHashMap.sanityContainsKeyTest(new OffHeapStringIntMap());
+    }
+
+    @Test
+    public void sanityGetTest() {
+        TestMyHashMap.sanityGetTest(new OffHeapStringIntMap());
+    }
+
+    @Test
+    public void sanitySizeTest() {
+        TestMyHashMap.sanitySizeTest(new OffHeapStringIntMap());
+    }
+
+    @Test
+    public void sanityPutTest() {
+        TestMyHashMap.sanityPutTest(new OffHeapStringIntMap());
+    }
+
+    @Test
+    public void sanityKeySetTest() {
+        TestMyHashMap.sanityKeySetTest(new OffHeapStringIntMap());
+    }
+
+    /** Keys outside ASCII and keys with equal hash codes must round-trip. */
+    @Test
+    public void unicodeAndCollidingKeysTest() {
+        OffHeapStringIntMap b = new OffHeapStringIntMap(4);
+        String[] keys = {"Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB",
+            "", "h\u00e9llo", "\u65e5\u672c", "\ud83d\ude00"};
+        for (int i = 0; i < keys.length; i++) {
+            b.put(keys[i], i);
+        }
+        assertEquals(keys.length, b.size());
+        assertEquals(0, (int) b.remove("Aa"));
+        assertNull(b.remove("BB", 7));
+        for (int i = 1; i < keys.length; i++) {
+            assertEquals(i, b.getInt(keys[i], -1));
+        }
+        assertEquals(-1, b.getInt("Aa", -1));
+        assertTrue(b.keySet().contains("\ud83d\ude00"));
+    }
+
+    /**
+     * Random puts and removes checked against java.util.HashMap. The small
+     * arena fills with removed records, so it is compacted many times.
+     */
+    @Test
+    public void randomizedTest() {
+        OffHeapStringIntMap b = new OffHeapStringIntMap(2);
+        Map<String, Integer> expected = new HashMap<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 50000; i++) {
+            String key = "key" + r.nextInt(5000);
+            if (r.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), b.remove(key));
+            } else {
+                expected.put(key, i);
+                b.putInt(key, i);
+            }
+            assertEquals(expected.size(), b.size());
+        }
+        for (int key = 0; key < 5000; key++) {
+            assertEquals(expected.get("key" + key), b.get("key" + key));
+        }
+        assertEquals(expected.keySet(), b.keySet());
+        b.clear();
+        assertEquals(0, b.size());
+        b.put("key1", 1);
+        assertEquals(1, (int) b.get("key1"));
+    }
+
+    /** removeAll(self) removes every key even though removals shift records back. */
+    @Test
+    public void removeAllSelfTest() {
+        OffHeapStringIntMap b = new OffHeapStringIntMap();
+        for (int i = 0; i < 100; i++) {
+            b.putInt("key" + i, i);
+        }
+        assertEquals(100, b.removeAll(b));
+        assertEquals(0, b.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nullValueTest() {
+        new OffHeapStringIntMap().put("a", null);
+    }
+}
@@ -0,0 +1,64 @@
+package speed;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import hashmap.Map61B;
+
+/**
+ * Presents a java.util.Map as a Map61B, so that the benchmarks can run the
+ * same code against Java's maps and ours.
+ */
+public class JavaMapAdapter<K, V> implements Map61B<K, V> {
+    private final Map<K, V> map;
+
+    public JavaMapAdapter(Map<K, V> map) {
+        this.map = map;
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public V get(K key) {
+        return map.get(key);
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public void put(K key, V value) {
+        map.put(key, value);
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return map.keySet();
+    }
+
+    @Override
+    public V remove(K key) {
+        return map.remove(key);
+    }
+
+    @Override
+    public V remove(K key, V value) {
+        return map.remove(key, value) ? value : null;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+        return map.keySet().iterator();
+    }
+}
@@ -0,0 +1,200 @@
+package speed;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hashmap.Map61B;
+import hashmap.MyHashMap;
+import hashmap.MyHashMapALBuckets;
+import hashmap.MyHashMapHSBuckets;
+import hashmap.MyHashMapLLBuckets;
+import hashmap.MyHashMapOpenAddressing;
+import hashmap.MyHashMapPQBuckets;
+import hashmap.MyHashMapTSBuckets;
+import hashmap.MyHashMapTreeBuckets;
+import hashmap.OffHeapStringIntMap;
+import hashmap.ULLMap;
+
+/**
+ * Non-interactive counterpart of the speed tests: JMH benchmarks of every
+ * Map61B in this lab and of Java's HashMap, with warmup, forks and error
+ * bounds. Each benchmark is one workload (insert, hit, miss or remove) run
+ * over N random keys of length keyLength, so scores are the time for N
+ * operations; divide by n for the time per operation.
+ *
+ * Build and run from lab8 with
+ *     mvn -Pjmh package
+ *     java -jar target/benchmarks.jar Map61BBenchmark
+ * and narrow a run with JMH options, for example
+ *     java -jar target/benchmarks.jar Map61BBenchmark.hit -p map=MyHashMap,HashMap -p n=1000000
+ *
+ * Keys come from a fixed seed, so every fork and every map sees the same keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class Map61BBenchmark {
+    /** Seed of the key generator. */
+    private static final long SEED = 61;
+
+    /** Keys and a prefilled map for the read-only workloads and for insert. */
+    @State(Scope.Thread)
+    public static class Workload {
+        /** ULLMap is linear per operation, so keep n small when it is included. */
+        @Param({"ULLMap", "MyHashMap", "MyHashMapALBuckets", "MyHashMapLLBuckets",
+                "MyHashMapTSBuckets", "MyHashMapHSBuckets", "MyHashMapPQBuckets",
+                "MyHashMapTreeBuckets", "MyHashMapOpenAddressing", "OffHeapStringIntMap",
+                "HashMap"})
+        public String map;
+
+        @Param({"10", "50"})
+        public int keyLength;
+
+        @Param({"1000", "10000"})
+        public int n;
+
+        String[] keys;
+        String[] absentKeys;
+        Map61B<String, Integer> filled;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            String[][] generated = generateKeys(n, keyLength);
+            keys = generated[0];
+            absentKeys = generated[1];
+            filled = fill(newMap(map), keys);
+        }
+    }
+
+    /**
+     * A map refilled before every invocation for the remove workload. ULLMap
+     * is left out because it doesn't support remove.
+     */
+    @State(Scope.Thread)
+    public static class RemoveWorkload {
+        @Param({"MyHashMap", "MyHashMapALBuckets", "MyHashMapLLBuckets",
+                "MyHashMapTSBuckets", "MyHashMapHSBuckets", "MyHashMapPQBuckets",
+                "MyHashMapTreeBuckets", "MyHashMapOpenAddressing", "OffHeapStringIntMap",
+                "HashMap"})
+        public String map;
+
+        @Param({"10", "50"})
+        public int keyLength;
+
+        @Param({"1000", "10000"})
+        public int n;
+
+        String[] keys;
+        Map61B<String, Integer> filled;
+
+        @Setup(Level.Trial)
+        public void generate() {
+            keys = generateKeys(n, keyLength)[0];
+        }
+
+        /** Runs outside the measurement; invocations are n removes long, which dwarfs its overhead. */
+        @Setup(Level.Invocation)
+        public void refill() {
+            filled = fill(newMap(map), keys);
+        }
+    }
+
+    /** Puts every key into an empty map. */
+    @Benchmark
+    public Map61B<String, Integer> insert(Workload w) {
+        return fill(newMap(w.map), w.keys);
+    }
+
+    /** Gets every key, all of which are present. */
+    @Benchmark
+    public void hit(Workload w, Blackhole bh) {
+        for (String key : w.keys) {
+            bh.consume(w.filled.get(key));
+        }
+    }
+
+    /** Gets N keys of the same length, none of which are present. */
+    @Benchmark
+    public void miss(Workload w, Blackhole bh) {
+        for (String key : w.absentKeys) {
+            bh.consume(w.filled.get(key));
+        }
+    }
+
+    /** Removes every key from a full map. */
+    @Benchmark
+    public void remove(RemoveWorkload w, Blackhole bh) {
+        for (String key : w.keys) {
+            bh.consume(w.filled.remove(key));
+        }
+    }
+
+    /** Returns a new, empty map of the type called NAME. */
+    static Map61B<String, Integer> newMap(String name) {
+        switch (name) {
+            case "ULLMap": return new ULLMap<>();
+            case "MyHashMap": return new MyHashMap<>();
+            case "MyHashMapALBuckets": return new MyHashMapALBuckets<>();
+            case "MyHashMapLLBuckets": return new MyHashMapLLBuckets<>();
+            case "MyHashMapTSBuckets": return new MyHashMapTSBuckets<>();
+            case "MyHashMapHSBuckets": return new MyHashMapHSBuckets<>();
+            case "MyHashMapPQBuckets": return new MyHashMapPQBuckets<>();
+            case "MyHashMapTreeBuckets": return new MyHashMapTreeBuckets<>();
+            case "MyHashMapOpenAddressing": return new MyHashMapOpenAddressing<>();
+            case "OffHeapStringIntMap": return new OffHeapStringIntMap();
+            case "HashMap": return new JavaMapAdapter<>(new HashMap<>());
+            default: throw new IllegalArgumentException("unknown map: " + name);
+        }
+    }
+
+    /** Puts KEYS[i] -> i for every i into MAP and returns MAP. */
+    static Map61B<String, Integer> fill(Map61B<String, Integer> map, String[] keys) {
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        return map;
+    }
+
+    /**
+     * Returns two arrays of N distinct random lowercase Strings of length
+     * LENGTH: the keys in insertion order, and keys that are not among them.
+     */
+    static String[][] generateKeys(int n, int length) {
+        Random random = new Random(SEED);
+        Set<String> seen = new HashSet<>();
+        String[][] result = new String[2][n];
+        for (String[] keys : result) {
+            for (int i = 0; i < n; i++) {
+                String key;
+                do {
+                    char[] chars = new char[length];
+                    for (int c = 0; c < length; c++) {
+                        chars[c] = (char) ('a' + random.nextInt(26));
+                    }
+                    key = new String(chars);
+                } while (!seen.add(key));
+                keys[i] = key;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package speed;
+
+import java.io.IOException;
+import java.util.Scanner;
+
+import edu.princeton.cs.algs4.Stopwatch;
+
+import hashmap.Map61B;
+import hashmap.MyHashMap;
+import hashmap.MyHashMapOpenAddressing;
+
+/**
+ * Compares copying one map into another key by key with put(K, V) against
+ * putAll(Map61B), which sizes the target once and walks the source directly.
+ */
+public class BulkLoadSpeedTest {
+    /**
+     * Requests user input and times both ways of loading each map type.
+     * ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program fills a map with random "
+                + "Strings of length L\n"
+                + " And copies it into an empty map of the same type, "
+                + "first with put and then with putAll.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to copy: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+            Map61B<String, Integer> hashSource = new MyHashMap<>();
+            Map61B<String, Integer> probingSource = new MyHashMapOpenAddressing<>();
+            for (int i = 0; i < N; i++) {
+                String key = StringUtils.randomString(L);
+                hashSource.put(key, i);
+                probingSource.put(key, i);
+            }
+
+            timeCopy("MyHashMap", hashSource, new MyHashMap<>(), new MyHashMap<>());
+            timeCopy("MyHashMapOpenAddressing", probingSource,
+                    new MyHashMapOpenAddressing<>(), new MyHashMapOpenAddressing<>());
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /**
+     * Copies SOURCE into PUTTARGET one key at a time and into BULKTARGET with
+     * putAll, printing the time each took.
+     */
+    public static void timeCopy(String name, Map61B<String, Integer> source,
+                                Map61B<String, Integer> putTarget,
+                                Map61B<String, Integer> bulkTarget) {
+        Stopwatch sw = new Stopwatch();
+        for (String key : source) {
+            putTarget.put(key, source.get(key));
+        }
+        double putTime = sw.elapsedTime();
+
+        sw = new Stopwatch();
+        bulkTarget.putAll(source);
+        double bulkTime = sw.elapsedTime();
+        System.out.printf("%s: put loop %.2f sec, putAll %.2f sec\n", name, putTime, bulkTime);
+    }
+}
@@ -0,0 +1,91 @@
+package speed;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Scanner;
+
+import edu.princeton.cs.algs4.Stopwatch;
+
+import hashmap.Map61B;
+import hashmap.MyHashMap;
+import hashmap.MyHashMapALBuckets;
+import hashmap.MyHashMapOpenAddressing;
+import hashmap.MyHashMapTreeBuckets;
+
+/**
+ * Times a hash-flooding attack: N Strings that all share one hashCode() are
+ * inserted and then looked up. Chained buckets and probing degrade to O(n)
+ * per operation, while tree buckets stay at O(log n).
+ */
+public class CollisionAttackSpeedTest {
+    /**
+     * Requests user input and times each map on colliding keys.
+     * ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program inserts Strings that all share one hash code\n"
+                + " Into different types of maps "
+                + "as <String, Integer> pairs, then looks each one up.\n");
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # colliding strings to insert into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            String[] keys = collidingKeys(N);
+
+            timeCollisions(new MyHashMapALBuckets<>(), keys);
+            timeCollisions(new MyHashMapTreeBuckets<>(), keys);
+            timeCollisions(new MyHashMapOpenAddressing<>(), keys);
+            timeCollisions(new HashMap<>(), keys);
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Returns N distinct Strings that all have the same hash code. */
+    public static String[] collidingKeys(int N) {
+        int blocks = Math.max(1, 32 - Integer.numberOfLeadingZeros(N - 1));
+        String[] keys = new String[N];
+        for (int i = 0; i < N; i++) {
+            keys[i] = StringUtils.collidingString(i, blocks);
+        }
+        return keys;
+    }
+
+    /**
+     * Puts then gets every key of KEYS in map, printing the time taken and,
+     * for MyHashMaps, the length of the longest bucket.
+     */
+    public static void timeCollisions(Map61B<String, Integer> map, String[] keys) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        for (String key : keys) {
+            map.get(key);
+        }
+        double time = sw.elapsedTime();
+        if (map instanceof MyHashMap) {
+            int longest = ((MyHashMap<String, Integer>) map).bucketLengthHistogram().length - 1;
+            System.out.printf(map.getClass() + ": %.2f sec, longest bucket %d\n", time, longest);
+        } else {
+            System.out.printf(map.getClass() + ": %.2f sec\n", time);
+        }
+    }
+
+    /** Same as above for Java's HashMap, which treeifies its own bins. */
+    public static void timeCollisions(HashMap<String, Integer> hashMap, String[] keys) {
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < keys.length; i++) {
+            hashMap.put(keys[i], i);
+        }
+        for (String key : keys) {
+            hashMap.get(key);
+        }
+        System.out.printf("Java's Built-in HashMap: %.2f sec\n", sw.elapsedTime());
+    }
+}
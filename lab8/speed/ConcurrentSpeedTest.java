@@ -0,0 +1,128 @@
+package speed;
+
+import java.io.IOException;
+import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+
+import hashmap.ConcurrentMyHashMap;
+import hashmap.Map61B;
+import hashmap.MyHashMap;
+
+/**
+ * Measures the throughput of a mixed workload (80% get, 15% put, 5% remove)
+ * run by 1, 2, 4, ... threads up to the number of available cores. Compares
+ * MyHashMap behind one global lock against ConcurrentMyHashMap.
+ */
+public class ConcurrentSpeedTest {
+    /** Percent of operations that are get(); puts and removes share the rest 3:1. */
+    private static final int GET_PERCENT = 80;
+
+    /**
+     * Requests user input and prints operations per second for each map and
+     * thread count. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program runs a mixed get/put/remove workload "
+                + "on random Strings of length L\n"
+                + " From an increasing number of threads "
+                + "and reports the throughput of each map.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # distinct keys: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            System.out.print("Enter # operations per thread: ");
+            int ops = InsertRandomSpeedTest.waitForPositiveInt(input);
+            String[] keys = new String[N];
+            for (int i = 0; i < N; i++) {
+                keys[i] = StringUtils.randomString(L);
+            }
+
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (int threads = 1; threads <= cores; threads = nextThreadCount(threads, cores)) {
+                double locked = throughput(new MyHashMap<>(), true, keys, threads, ops);
+                double striped = throughput(new ConcurrentMyHashMap<>(), false, keys, threads, ops);
+                System.out.printf("%2d threads: global lock MyHashMap %.2f Mops/s, "
+                        + "ConcurrentMyHashMap %.2f Mops/s\n", threads, locked / 1e6, striped / 1e6);
+            }
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Returns the thread count after THREADS: doubled, but ending exactly at CORES. */
+    private static int nextThreadCount(int threads, int cores) {
+        if (threads == cores) {
+            return cores + 1;
+        }
+        return Math.min(threads * 2, cores);
+    }
+
+    /**
+     * Prefills MAP with half of KEYS, runs OPS mixed operations on each of
+     * THREADS threads, and returns the total operations per second. With
+     * GLOBALLOCK, every operation synchronizes on the map.
+     */
+    public static double throughput(Map61B<String, Integer> map, boolean globalLock,
+                                    String[] keys, int threads, int ops)
+            throws InterruptedException {
+        for (int i = 0; i < keys.length; i += 2) {
+            map.put(keys[i], i);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                runWorkload(map, globalLock, keys, ops);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        return (double) threads * ops / seconds;
+    }
+
+    /** Performs OPS random operations on MAP from the calling thread. */
+    private static void runWorkload(Map61B<String, Integer> map, boolean globalLock,
+                                    String[] keys, int ops) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < ops; i++) {
+            String key = keys[random.nextInt(keys.length)];
+            int roll = random.nextInt(100);
+            if (globalLock) {
+                synchronized (map) {
+                    apply(map, key, roll, i);
+                }
+            } else {
+                apply(map, key, roll, i);
+            }
+        }
+    }
+
+    /** Applies the operation picked by ROLL, a number in [0, 100), to KEY. */
+    private static void apply(Map61B<String, Integer> map, String key, int roll, int value) {
+        if (roll < GET_PERCENT) {
+            map.get(key);
+        } else if (roll < GET_PERCENT + (100 - GET_PERCENT) * 3 / 4) {
+            map.put(key, value);
+        } else {
+            map.remove(key);
+        }
+    }
+}
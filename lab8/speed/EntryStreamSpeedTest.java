@@ -0,0 +1,67 @@
+package speed;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Scanner;
+
+import edu.princeton.cs.algs4.Stopwatch;
+
+import hashmap.MyHashMap;
+
+/**
+ * Times summing every value of a MyHashMap four ways: iterating keys and
+ * calling get(), iterating entries, and sequential and parallel entry streams.
+ */
+public class EntryStreamSpeedTest {
+    /**
+     * Requests user input and prints the time taken by each way of summing.
+     * ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program fills a MyHashMap with random "
+                + "Strings of length L\n"
+                + " And sums its values in different ways.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into the map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            MyHashMap<String, Integer> map = new MyHashMap<>();
+            for (int i = 0; i < N; i++) {
+                map.put(StringUtils.randomString(L), i);
+            }
+
+            Stopwatch sw = new Stopwatch();
+            long sum = 0;
+            for (String key : map) {
+                sum += map.get(key);
+            }
+            System.out.printf("keys + get():       %.2f sec (sum %d)\n", sw.elapsedTime(), sum);
+
+            sw = new Stopwatch();
+            sum = 0;
+            Iterator<Map.Entry<String, Integer>> entries = map.entryIterator();
+            while (entries.hasNext()) {
+                sum += entries.next().getValue();
+            }
+            System.out.printf("entryIterator():    %.2f sec (sum %d)\n", sw.elapsedTime(), sum);
+
+            sw = new Stopwatch();
+            sum = map.entries().mapToLong(Map.Entry::getValue).sum();
+            System.out.printf("entries():          %.2f sec (sum %d)\n", sw.elapsedTime(), sum);
+
+            sw = new Stopwatch();
+            sum = map.entries().parallel().mapToLong(Map.Entry::getValue).sum();
+            System.out.printf("entries().parallel: %.2f sec (sum %d)\n", sw.elapsedTime(), sum);
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+}
@@ -0,0 +1,96 @@
+package speed;
+
+import java.io.IOException;
+import java.util.Scanner;
+
+import edu.princeton.cs.algs4.Stopwatch;
+
+import hashmap.HashSpreader;
+import hashmap.MyHashMap;
+
+/**
+ * Compares MyHashMap's hash spreaders on throughput and on how evenly they
+ * spread keys over the buckets. Evenness is reported as the longest chain
+ * and as the chi-square statistic of the bucket lengths divided by its
+ * degrees of freedom, which is close to 1 for a uniform spread and grows as
+ * keys pile up in fewer buckets.
+ */
+public class HashSpreadingSpeedTest {
+    /**
+     * Requests user input and reports each spreader's time and bucket
+     * distribution on random and on lexicographically increasing Strings.
+     * ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program inserts random "
+                + "Strings of length L\n"
+                + " Into MyHashMaps using different hash spreaders "
+                + "and reports time and bucket distribution.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            String[] randomKeys = new String[N];
+            String[] inOrderKeys = new String[N];
+            String s = "cat";
+            for (int i = 0; i < N; i++) {
+                randomKeys[i] = StringUtils.randomString(L);
+                s = StringUtils.nextString(s);
+                inOrderKeys[i] = s;
+            }
+
+            for (String[] keys : new String[][] {randomKeys, inOrderKeys}) {
+                System.out.println(keys == randomKeys ? "\nRandom keys:" : "\nIn-order keys:");
+                timeSpreader("identity", HashSpreader.IDENTITY, keys);
+                timeSpreader("xor-shift", HashSpreader.XOR_SHIFT, keys);
+                timeSpreader("murmur", HashSpreader.murmur(0x61B), keys);
+            }
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /**
+     * Puts then gets every key of KEYS in a MyHashMap using SPREADER and
+     * prints the time taken along with the resulting bucket distribution.
+     */
+    public static void timeSpreader(String name, HashSpreader spreader, String[] keys) {
+        MyHashMap<String, Integer> map = new MyHashMap<>(16, 0.75, false, spreader);
+        Stopwatch sw = new Stopwatch();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        for (String key : keys) {
+            map.get(key);
+        }
+        double time = sw.elapsedTime();
+        int[] histogram = map.bucketLengthHistogram();
+        System.out.printf("%-10s %.2f sec, chi-square/df %.3f, longest chain %d\n",
+                name, time, chiSquarePerDegree(histogram, map.size()), histogram.length - 1);
+    }
+
+    /**
+     * Returns the chi-square statistic of a bucket length HISTOGRAM holding
+     * ITEMS items, divided by its degrees of freedom (# buckets - 1).
+     */
+    public static double chiSquarePerDegree(int[] histogram, int items) {
+        long buckets = 0;
+        for (int count : histogram) {
+            buckets += count;
+        }
+        double expected = (double) items / buckets;
+        double chiSquare = 0;
+        for (int length = 0; length < histogram.length; length++) {
+            double deviation = length - expected;
+            chiSquare += histogram[length] * deviation * deviation / expected;
+        }
+        return chiSquare / Math.max(1, buckets - 1);
+    }
+}
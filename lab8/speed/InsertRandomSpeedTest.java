@@ -8,6 +8,8 @@ import edu.princeton.cs.algs4.Stopwatch;
 import hashmap.Map61B;
 import hashmap.ULLMap;
 import hashmap.MyHashMap;
+import hashmap.MyHashMapOpenAddressing;
+import hashmap.OffHeapStringIntMap;
 
 /** Performs a timing test on three different set implementations.
  *  @author Josh Hug
@@ -39,6 +41,14 @@ public class InsertRandomSpeedTest {
             timeRandomMap61B(new MyHashMap<String, Integer>(),
                     waitForPositiveInt(input), L);
 
+            System.out.print("\nEnter # strings to insert into hashmap.MyHashMapOpenAddressing: ");
+            timeRandomMap61B(new MyHashMapOpenAddressing<String, Integer>(),
+                    waitForPositiveInt(input), L);
+
+            System.out.print("\nEnter # strings to insert into hashmap.OffHeapStringIntMap: ");
+            timeRandomMap61B(new OffHeapStringIntMap(),
+                    waitForPositiveInt(input), L);
+
             System.out.print("\nEnter # strings to insert into Java's HashMap: ");
             timeRandomHashMap(new HashMap<String, Integer>(),
                     waitForPositiveInt(input), L);
@@ -0,0 +1,134 @@
+package speed;
+
+import java.io.IOException;
+import java.util.Scanner;
+import java.util.function.Supplier;
+
+import hashmap.Map61B;
+import hashmap.MyHashMap;
+import hashmap.MyHashMapLLBuckets;
+import hashmap.MyHashMapOpenAddressing;
+import hashmap.OffHeapStringIntMap;
+
+/**
+ * Estimates how much heap different maps retain. The estimate is the growth
+ * of used heap, measured after forcing garbage collection, while the map is
+ * still reachable. Keys are built before the first measurement so that only
+ * the map's own structure is counted.
+ */
+public class MemoryFootprintSpeedTest {
+    /** Slots preallocated by the sparse scenario. */
+    private static final int SPARSE_CAPACITY = 1 << 20;
+
+    /**
+     * Requests user input and reports the retained size of each map in three
+     * scenarios: dense, sparse and after churn. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program inserts random "
+                + "Strings of length L\n"
+                + " Into different types of maps "
+                + "and estimates the heap each map retains.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            String[] keys = new String[N];
+            for (int i = 0; i < N; i++) {
+                keys[i] = StringUtils.randomString(L);
+            }
+
+            System.out.println("\nDense: " + N + " puts");
+            reportDense(MyHashMap::new, keys);
+            reportDense(MyHashMapLLBuckets::new, keys);
+            reportDense(MyHashMapOpenAddressing::new, keys);
+            reportDense(OffHeapStringIntMap::new, keys);
+
+            System.out.println("\nSparse: " + Math.min(N, 1000) + " puts into "
+                    + SPARSE_CAPACITY + " initial buckets");
+            reportSparse(() -> new MyHashMap<>(SPARSE_CAPACITY), keys);
+            reportSparse(() -> new MyHashMapLLBuckets<>(SPARSE_CAPACITY), keys);
+            reportSparse(() -> new MyHashMapOpenAddressing<>(SPARSE_CAPACITY), keys);
+            reportSparse(() -> new OffHeapStringIntMap(SPARSE_CAPACITY), keys);
+
+            System.out.println("\nChurn: " + N + " puts, then all but "
+                    + N / 10 + " removed");
+            reportChurn(MyHashMap::new, keys);
+            reportChurn(MyHashMapLLBuckets::new, keys);
+            reportChurn(MyHashMapOpenAddressing::new, keys);
+            reportChurn(OffHeapStringIntMap::new, keys);
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /** Reports the footprint of a map holding every key of KEYS. */
+    private static void reportDense(Supplier<Map61B<String, Integer>> factory, String[] keys) {
+        long before = usedHeapBytes();
+        Map61B<String, Integer> map = factory.get();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        printFootprint(map, usedHeapBytes() - before);
+    }
+
+    /** Reports the footprint of a large-capacity map holding only a few keys. */
+    private static void reportSparse(Supplier<Map61B<String, Integer>> factory, String[] keys) {
+        long before = usedHeapBytes();
+        Map61B<String, Integer> map = factory.get();
+        for (int i = 0; i < Math.min(keys.length, 1000); i++) {
+            map.put(keys[i], i);
+        }
+        printFootprint(map, usedHeapBytes() - before);
+    }
+
+    /** Reports the footprint of a map that held all of KEYS but kept only a tenth. */
+    private static void reportChurn(Supplier<Map61B<String, Integer>> factory, String[] keys) {
+        long before = usedHeapBytes();
+        Map61B<String, Integer> map = factory.get();
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        for (int i = keys.length / 10; i < keys.length; i++) {
+            map.remove(keys[i]);
+        }
+        printFootprint(map, usedHeapBytes() - before);
+    }
+
+    /**
+     * Prints BYTES retained by MAP in total and per entry. Native memory held
+     * by an OffHeapStringIntMap isn't part of the heap, so it is printed too.
+     * Its keys are copies, so unlike the other maps it doesn't need the key
+     * Strings, which this test keeps alive and doesn't count for any map.
+     */
+    private static void printFootprint(Map61B<String, Integer> map, long bytes) {
+        System.out.printf("%s: %.2f MB, %.1f bytes/entry", map.getClass(),
+                bytes / (1024.0 * 1024.0), (double) bytes / Math.max(1, map.size()));
+        if (map instanceof OffHeapStringIntMap) {
+            long offHeap = ((OffHeapStringIntMap) map).offHeapBytes();
+            System.out.printf(" + %.2f MB off-heap", offHeap / (1024.0 * 1024.0));
+        }
+        System.out.println();
+    }
+
+    /**
+     * Returns the bytes of heap in use after collecting garbage. A few rounds
+     * are run because a single System.gc() is only a hint.
+     */
+    public static long usedHeapBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
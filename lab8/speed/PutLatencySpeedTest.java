@@ -0,0 +1,87 @@
+package speed;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Scanner;
+
+import hashmap.Map61B;
+import hashmap.MyHashMap;
+
+/**
+ * Measures the latency of every single put() instead of their total time, so
+ * the cost of a resize shows up in the tail percentiles instead of being
+ * averaged away. Compares MyHashMap's stop-the-world resize against its
+ * incremental resize mode.
+ */
+public class PutLatencySpeedTest {
+    /**
+     * Requests user input and reports put() latency percentiles for both
+     * resize modes. ARGS is unused.
+     */
+    public static void main(String[] args) throws IOException {
+        Scanner input = new Scanner(System.in);
+
+        System.out.println("\n This program inserts random "
+                + "Strings of length L\n"
+                + " Into MyHashMap with each resize mode "
+                + "and reports per-put latency percentiles.\n");
+        System.out.print("What would you like L to be?: ");
+        int L = InsertRandomSpeedTest.waitForPositiveInt(input);
+
+        String repeat = "y";
+        do {
+            System.out.print("\nEnter # strings to insert into each map: ");
+            int N = InsertRandomSpeedTest.waitForPositiveInt(input);
+            String[] keys = new String[N];
+            for (int i = 0; i < N; i++) {
+                keys[i] = StringUtils.randomString(L);
+            }
+
+            // One untimed round per mode so that both run JIT-compiled code
+            putLatencies(new MyHashMap<>(16, 0.75, false), keys);
+            putLatencies(new MyHashMap<>(16, 0.75, true), keys);
+
+            printPercentiles("Stop-the-world resize",
+                    putLatencies(new MyHashMap<>(16, 0.75, false), keys));
+            printPercentiles("Incremental resize",
+                    putLatencies(new MyHashMap<>(16, 0.75, true), keys));
+
+            System.out.print("\nWould you like to try more timed-tests? (y/n)");
+            repeat = input.nextLine();
+        } while (!repeat.equalsIgnoreCase("n") && !repeat.equalsIgnoreCase("no"));
+        input.close();
+    }
+
+    /**
+     * Puts every key of KEYS into map61B and returns the latency of each
+     * put in nanoseconds, in insertion order.
+     */
+    public static long[] putLatencies(Map61B<String, Integer> map61B, String[] keys) {
+        long[] latencies = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            long start = System.nanoTime();
+            map61B.put(keys[i], i);
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    /** Prints total time and the p50/p99/p99.9/max of LATENCIES under LABEL. */
+    public static void printPercentiles(String label, long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        long total = 0;
+        for (long latency : sorted) {
+            total += latency;
+        }
+        System.out.printf("%s: total %.2f sec, p50 %d ns, p99 %d ns, p999 %d ns, max %d ns\n",
+                label, total / 1e9, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted[sorted.length - 1]);
+    }
+
+    /** Returns the value at fraction P of the ascending array SORTED. */
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
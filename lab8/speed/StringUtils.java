@@ -27,6 +27,19 @@ public class StringUtils {
         return new String(someChars);
     }
 
+    /**
+     * Returns the INDEXth of the 2^BLOCKS strings made of BLOCKS copies of
+     * "Aa" or "BB". Both blocks have hash code 2112, so for a fixed BLOCKS all
+     * of these strings share one hashCode(): the classic hash-flooding keys.
+     */
+    public static String collidingString(int index, int blocks) {
+        StringBuilder sb = new StringBuilder(2 * blocks);
+        for (int bit = 0; bit < blocks; bit++) {
+            sb.append(((index >> bit) & 1) == 0 ? "Aa" : "BB");
+        }
+        return sb.toString();
+    }
+
     /**
      * Returns true if string S consists of characters between
      * 'a' and 'z' only. No spaces, numbers, upper-case, or any other
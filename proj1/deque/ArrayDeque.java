@@ -8,6 +8,9 @@ import java.util.Objects;
  * A generic double-ended queue implementation using a resizable circular array.
  * Supports constant-time operations for adding and removing from both ends.
  *
+ * The capacity is always a power of two, so wrapping an index around the array
+ * is a bitwise and with capacity - 1 instead of an integer division.
+ *
  * @param <T> the type of elements held in this deque
  * @author timekeeper005
  */
@@ -18,7 +21,11 @@ public class ArrayDeque<T> implements Deque<T>,Iterable<T>{
     private int size;
     /** Index of the first element */
     private int front;
-    /** Initial capacity of the array */
+    /** items.length - 1, which maps any index into the array */
+    private int mask;
+    /** Downsize once size drops below this, USAGE_FACTOR of the capacity */
+    private int shrinkThreshold;
+    /** Initial and minimum capacity of the array, a power of two */
     private static final int INITIAL_CAPACITY = 8;
     /** Usage factor threshold for downsizing */
     private static final double USAGE_FACTOR = 0.25;
@@ -31,6 +38,7 @@ public class ArrayDeque<T> implements Deque<T>,Iterable<T>{
         items = (T[]) new Object[INITIAL_CAPACITY];
         size = 0;
         front = 0;
+        setThresholds();
     }
 
     /**
@@ -45,7 +53,7 @@ public class ArrayDeque<T> implements Deque<T>,Iterable<T>{
             resize(items.length * 2);
         }
         // Move front pointer and wrap around if necessary
-        front = (front - 1 + items.length) % items.length;
+        front = (front - 1) & mask;
         items[front] = item;
         size++;
     }
@@ -61,7 +69,7 @@ public class ArrayDeque<T> implements Deque<T>,Iterable<T>{
         if (size == items.length) {
             resize(items.length * 2);
         }
-        int lastIndex = (front + size) % items.length;
+        int lastIndex = (front + size) & mask;
         items[lastIndex] = item;
         size++;
     }
@@ -79,11 +87,11 @@ public class ArrayDeque<T> implements Deque<T>,Iterable<T>{
         }
         T item = items[front];
         items[front] = null;  // Help with garbage collection
-        front = (front + 1) % items.length;
+        front = (front + 1) & mask;
         size--;
 
         // Check if we need to downsize
-        if (size > 0 && (double) size / items.length < USAGE_FACTOR) {
+        if (size < shrinkThreshold) {
             resize(items.length / 2);
         }
         return item;
@@ -101,13 +109,13 @@ public class ArrayDeque<T> implements Deque<T>,Iterable<T>{
         if (isEmpty()) {
            return null;
         }
-        int lastIndex = (front + size - 1) % items.length;
+        int lastIndex = (front + size - 1) & mask;
         T item = items[lastIndex];
         items[lastIndex] = null;  // Help with garbage collection
         size--;
 
         // Check if we need to downsize
-        if (size > 0 && (double) size / items.length < USAGE_FACTOR) {
+        if (size < shrinkThreshold) {
             resize(items.length / 2);
         }
         return item;
@@ -126,7 +134,7 @@ public class ArrayDeque<T> implements Deque<T>,Iterable<T>{
         if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
         }
-        return items[(front + index) % items.length];
+        return items[(front + index) & mask];
     }
 
     /**
@@ -174,7 +182,9 @@ public class ArrayDeque<T> implements Deque<T>,Iterable<T>{
     }
 
     /**
-     * Resizes the underlying array to the specified capacity.
+     * Resizes the underlying array to the specified capacity, a power of two.
+     * The items wrap around the old array at most once, so they are copied as
+     * two contiguous runs.
      * Time complexity: O(n)
      *
      * @param capacity the new capacity for the array
@@ -182,11 +192,25 @@ public class ArrayDeque<T> implements Deque<T>,Iterable<T>{
     @SuppressWarnings("unchecked")
     private void resize(int capacity) {
         T[] newItems = (T[]) new Object[capacity];
-        for (int i = 0; i < size; i++) {
-            newItems[i] = get(i);
-        }
+        int firstRun = Math.min(size, items.length - front);
+        System.arraycopy(items, front, newItems, 0, firstRun);
+        System.arraycopy(items, 0, newItems, firstRun, size - firstRun);
         items = newItems;
         front = 0;  // Reset front to beginning of array
+        setThresholds();
+    }
+
+    /**
+     * Recomputes the mask and the downsizing threshold for the current capacity.
+     * A downsize halves the capacity once fewer than a quarter of it is used,
+     * which leaves the array about half full: it takes as many adds again to
+     * grow it back, and as many removes to shrink it further, so alternating
+     * adds and removes at either boundary never resizes twice in a row. The
+     * array never shrinks below INITIAL_CAPACITY.
+     */
+    private void setThresholds() {
+        mask = items.length - 1;
+        shrinkThreshold = items.length > INITIAL_CAPACITY ? (int) (items.length * USAGE_FACTOR) : 0;
     }
 
     /**
@@ -239,12 +263,12 @@ public class ArrayDeque<T> implements Deque<T>,Iterable<T>{
     }
 
     private class MyIterator implements Iterator<T> {
-        int currentIndex = front;
-        int lastIndex = (front + size - 1) % items.length;
+        /** Index of the next item, counted from the front */
+        int position = 0;
 
         @Override
         public boolean hasNext() {
-            return currentIndex != lastIndex;
+            return position < size;
         }
 
         @Override
@@ -252,9 +276,7 @@ public class ArrayDeque<T> implements Deque<T>,Iterable<T>{
             if (!hasNext()) {
                 throw new NoSuchElementException(); // Throw exception if no next element
             }
-            T item = items[currentIndex];
-            currentIndex = (currentIndex + 1) % items.length; // advance to the next item
-            return item;
+            return items[(front + position++) & mask]; // advance to the next item
         }
     }
 }
@@ -0,0 +1,89 @@
+package deque;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** Tests of ArrayDeque, checked against java.util.ArrayDeque. */
+public class ArrayDequeTest {
+
+    @Test
+    /* Random adds and removes at both ends, through several grows and shrinks. */
+    public void randomizedTest() {
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 100000; i++) {
+            // Drifts between growing and shrinking phases, so the array resizes both ways
+            boolean growing = (i / 5000) % 2 == 0;
+            int op = r.nextInt(growing ? 6 : 4);
+            if (op == 0) {
+                assertEquals(expected.pollFirst(), ad.removeFirst());
+            } else if (op == 1) {
+                assertEquals(expected.pollLast(), ad.removeLast());
+            } else if (op % 2 == 0) {
+                ad.addFirst(i);
+                expected.addFirst(i);
+            } else {
+                ad.addLast(i);
+                expected.addLast(i);
+            }
+            assertEquals(expected.size(), ad.size());
+            if (!expected.isEmpty()) {
+                assertEquals(expected.peekFirst(), ad.get(0));
+                assertEquals(expected.peekLast(), ad.get(ad.size() - 1));
+            }
+        }
+        assertEquals(new ArrayList<>(expected), toList(ad));
+    }
+
+    @Test
+    /* The iterator visits every item, including the last, and nothing when empty. */
+    public void iteratorTest() {
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        assertFalse(ad.iterator().hasNext());
+        for (int i = 0; i < 8; i++) {
+            ad.addFirst(i);
+        }
+        assertEquals(List.of(7, 6, 5, 4, 3, 2, 1, 0), toList(ad));
+
+        ad.removeLast();
+        ad.addLast(-1);
+        assertEquals(List.of(7, 6, 5, 4, 3, 2, 1, -1), toList(ad));
+
+        MaxArrayDeque<Integer> mad = new MaxArrayDeque<>(Integer::compare);
+        mad.addLast(1);
+        mad.addLast(3);
+        assertEquals(3, (int) mad.max());
+    }
+
+    @Test
+    /* Items keep their order when a wrapped-around array is resized either way. */
+    public void wrappedResizeTest() {
+        ArrayDeque<Integer> ad = new ArrayDeque<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ad.addFirst(-i);
+            expected.add(0, -i);
+            ad.addLast(i);
+            expected.add(i);
+        }
+        assertEquals(expected, toList(ad));
+        for (int i = 0; i < 900; i++) {
+            assertEquals(expected.remove(0), ad.removeFirst());
+            assertEquals(expected.remove(expected.size() - 1), ad.removeLast());
+        }
+        assertEquals(expected, toList(ad));
+        assertNull(new ArrayDeque<Integer>().removeFirst());
+    }
+
+    private static <T> List<T> toList(Iterable<T> items) {
+        List<T> list = new ArrayList<>();
+        for (T item : items) {
+            list.add(item);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,191 @@
+package deque;
+
+import java.util.NoSuchElementException;
+
+/**
+ * ArrayDeque specialized to primitive doubles. Items live in a double[], so
+ * adds, removes and gets neither box nor allocate, except when the array
+ * resizes. A deque that stays the same size, like a GuitarString's buffer,
+ * allocates nothing after it is filled.
+ *
+ * As in ArrayDeque the capacity is a power of two, indexes wrap with a mask,
+ * and the array halves once less than a quarter of it is used, down to the
+ * capacity it was created with.
+ */
+public class DoubleArrayDeque implements DoubleDeque {
+    /** Array to store the elements */
+    private double[] items;
+    /** Size of the deque */
+    private int size;
+    /** Index of the first element */
+    private int front;
+    /** items.length - 1, which maps any index into the array */
+    private int mask;
+    /** Downsize once size drops below this, USAGE_FACTOR of the capacity */
+    private int shrinkThreshold;
+    /** The capacity chosen at construction, below which the array never shrinks */
+    private final int minCapacity;
+    /** Default initial capacity of the array, a power of two */
+    private static final int INITIAL_CAPACITY = 8;
+    /** Usage factor threshold for downsizing */
+    private static final double USAGE_FACTOR = 0.25;
+
+    /**
+     * Constructs an empty deque with initial capacity of 8.
+     */
+    public DoubleArrayDeque() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs an empty deque that holds at least capacity items before it
+     * resizes, and never shrinks below that.
+     *
+     * @param capacity the number of items to make room for
+     */
+    public DoubleArrayDeque(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity: " + capacity);
+        }
+        int length = INITIAL_CAPACITY;
+        while (length < capacity) {
+            length *= 2;
+        }
+        items = new double[length];
+        minCapacity = length;
+        setThresholds();
+    }
+
+    /**
+     * Adds an item to the front of the deque.
+     * Time complexity: O(1) amortized
+     *
+     * @param item the item to add
+     */
+    @Override
+    public void addFirst(double item) {
+        if (size == items.length) {
+            resize(items.length * 2);
+        }
+        front = (front - 1) & mask;
+        items[front] = item;
+        size++;
+    }
+
+    /**
+     * Adds an item to the back of the deque.
+     * Time complexity: O(1) amortized
+     *
+     * @param item the item to add
+     */
+    @Override
+    public void addLast(double item) {
+        if (size == items.length) {
+            resize(items.length * 2);
+        }
+        items[(front + size) & mask] = item;
+        size++;
+    }
+
+    /**
+     * Removes and returns the first item in the deque.
+     * Time complexity: O(1) amortized
+     *
+     * @return the first item in the deque
+     * @throws NoSuchElementException if the deque is empty
+     */
+    @Override
+    public double removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException("removeFirst on an empty deque");
+        }
+        double item = items[front];
+        front = (front + 1) & mask;
+        size--;
+        if (size < shrinkThreshold) {
+            resize(items.length / 2);
+        }
+        return item;
+    }
+
+    /**
+     * Removes and returns the last item in the deque.
+     * Time complexity: O(1) amortized
+     *
+     * @return the last item in the deque
+     * @throws NoSuchElementException if the deque is empty
+     */
+    @Override
+    public double removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException("removeLast on an empty deque");
+        }
+        double item = items[(front + size - 1) & mask];
+        size--;
+        if (size < shrinkThreshold) {
+            resize(items.length / 2);
+        }
+        return item;
+    }
+
+    /**
+     * Gets the item at the specified index.
+     * Time complexity: O(1)
+     *
+     * @param index the index of the item to get
+     * @return the item at the specified index
+     * @throws IndexOutOfBoundsException if index is invalid
+     */
+    @Override
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return items[(front + index) & mask];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Prints all items in the deque from front to back.
+     * Time complexity: O(n)
+     */
+    @Override
+    public void printDeque() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(" ");
+            }
+            sb.append(get(i));
+        }
+        sb.append("]");
+        System.out.println(sb.toString());
+    }
+
+    /**
+     * Resizes the underlying array to the specified capacity, a power of two,
+     * copying the items as the two contiguous runs they form in the old array.
+     * Time complexity: O(n)
+     *
+     * @param capacity the new capacity for the array
+     */
+    private void resize(int capacity) {
+        double[] newItems = new double[capacity];
+        int firstRun = Math.min(size, items.length - front);
+        System.arraycopy(items, front, newItems, 0, firstRun);
+        System.arraycopy(items, 0, newItems, firstRun, size - firstRun);
+        items = newItems;
+        front = 0;
+        setThresholds();
+    }
+
+    /** Recomputes the mask and the downsizing threshold, as ArrayDeque does. */
+    private void setThresholds() {
+        mask = items.length - 1;
+        shrinkThreshold = items.length > minCapacity ? (int) (items.length * USAGE_FACTOR) : 0;
+    }
+}
@@ -0,0 +1,70 @@
+package deque;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** Tests of DoubleArrayDeque, checked against java.util.ArrayDeque. */
+public class DoubleArrayDequeTest {
+
+    @Test
+    /* Random adds and removes at both ends, through several grows and shrinks. */
+    public void randomizedTest() {
+        DoubleArrayDeque dd = new DoubleArrayDeque();
+        java.util.ArrayDeque<Double> expected = new java.util.ArrayDeque<>();
+        Random r = new Random(61);
+        for (int i = 0; i < 100000; i++) {
+            boolean growing = (i / 5000) % 2 == 0;
+            int op = expected.isEmpty() ? 2 : r.nextInt(growing ? 6 : 4);
+            if (op == 0) {
+                assertEquals(expected.removeFirst(), dd.removeFirst(), 0.0);
+            } else if (op == 1) {
+                assertEquals(expected.removeLast(), dd.removeLast(), 0.0);
+            } else if (op % 2 == 0) {
+                dd.addFirst(i + 0.5);
+                expected.addFirst(i + 0.5);
+            } else {
+                dd.addLast(-i - 0.5);
+                expected.addLast(-i - 0.5);
+            }
+            assertEquals(expected.size(), dd.size());
+        }
+        int index = 0;
+        for (double item : expected) {
+            assertEquals(item, dd.get(index++), 0.0);
+        }
+    }
+
+    @Test
+    /* A presized deque keeps its capacity, so a full buffer can cycle without resizing. */
+    public void presizedTest() {
+        DoubleArrayDeque dd = new DoubleArrayDeque(100);
+        for (int i = 0; i < 100; i++) {
+            dd.addLast(i);
+        }
+        for (int i = 100; i < 1000; i++) {
+            assertEquals(i - 100, dd.removeFirst(), 0.0);
+            dd.addLast(i);
+            assertEquals(i - 99, dd.get(0), 0.0);
+            assertEquals(i, dd.get(99), 0.0);
+        }
+        while (!dd.isEmpty()) {
+            dd.removeLast();
+        }
+        dd.addFirst(1.5);
+        assertEquals(1.5, dd.get(0), 0.0);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void removeFromEmptyTest() {
+        new DoubleArrayDeque().removeFirst();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getOutOfBoundsTest() {
+        DoubleArrayDeque dd = new DoubleArrayDeque();
+        dd.addLast(1.0);
+        dd.get(1);
+    }
+}
@@ -0,0 +1,71 @@
+package deque;
+
+/**
+ * A double ended queue of primitive doubles. It has the same operations as Deque,
+ * but takes and returns double instead of Double, so adding and removing items
+ * never boxes them.
+ */
+public interface DoubleDeque {
+
+    /**
+     * Adds an item to the front of the deque.
+     *
+     * @param item the item to be added
+     */
+    void addFirst(double item);
+
+    /**
+     * Adds an item to the back of the deque.
+     *
+     * @param item the item to be added
+     */
+    void addLast(double item);
+
+    /**
+     * Returns the number of items in the deque.
+     *
+     * @return the size of the deque
+     */
+    int size();
+
+    /**
+     * Prints the items in the deque from first to last, separated by a space.
+     */
+    void printDeque();
+
+    /**
+     * Removes and returns the item at the front of the deque.
+     * A double has no null, so unlike Deque this throws on an empty deque.
+     *
+     * @return the item removed
+     * @throws java.util.NoSuchElementException if the deque is empty
+     */
+    double removeFirst();
+
+    /**
+     * Removes and returns the item at the back of the deque.
+     *
+     * @return the item removed
+     * @throws java.util.NoSuchElementException if the deque is empty
+     */
+    double removeLast();
+
+    /**
+     * Gets the item at the given index, where 0 is the front, 1 is the next item, and so on.
+     * Must not alter the deque.
+     *
+     * @param index the index of the item to be retrieved
+     * @return the item at the given index
+     * @throws IndexOutOfBoundsException if no such item exists
+     */
+    double get(int index);
+
+    /**
+     * Returns true if the deque is empty, false otherwise.
+     *
+     * @return true if the deque is empty, false otherwise
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+}
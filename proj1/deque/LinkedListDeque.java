@@ -65,6 +65,7 @@ class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
 
         tail.prev.next = sentinel; // Bypass tail
         sentinel.prev = tail.prev; // Update sentinel's prev
+        unlink(tail);
         size -= 1;
 
         return returnValue;
@@ -83,11 +84,19 @@ class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
 
         sentinel.next = head.next; // Bypass head
         head.next.prev = sentinel;
+        unlink(head);
         size -= 1;
 
         return returnValue;
     }
 
+    // Clear a removed node, so that it keeps neither its item nor its old neighbours reachable
+    private void unlink(Node<T> node) {
+        node.data = null;
+        node.prev = null;
+        node.next = null;
+    }
+
     // Display the contents of the deque
     @Override
     public void printDeque() {
@@ -194,7 +203,7 @@ class LinkedListDeque<T> implements Deque<T>, Iterable<T> {
 
         @Override
         public boolean hasNext() {
-            return currentNode.next != sentinel; // Check if currentNode is not null
+            return currentNode != sentinel; // Check if currentNode is a real node
         }
 
         @Override
@@ -136,4 +136,19 @@ public class LinkedListDequeTest {
 
         */
     }
+
+    @Test
+    /* The iterator visits every item, including the last, and nothing when empty. */
+    public void iteratorTest() {
+        LinkedListDeque<Integer> lld1 = new LinkedListDeque<>();
+        assertFalse(lld1.iterator().hasNext());
+        for (int i = 0; i < 5; i++) {
+            lld1.addLast(i);
+        }
+        int expected = 0;
+        for (int item : lld1) {
+            assertEquals(expected++, item);
+        }
+        assertEquals(5, expected);
+    }
 }
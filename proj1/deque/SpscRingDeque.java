@@ -0,0 +1,328 @@
+package deque;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free queue from one producer thread to one consumer thread.
+ * The producer adds at the back with addLast, offer and offerAll, and the
+ * consumer takes from the front with removeFirst and drainTo. Nothing else
+ * may write to it, and addFirst and removeLast are unsupported.
+ *
+ * The items live in a power-of-two ring indexed by two ever-growing counters:
+ * tail, written only by the producer, and head, written only by the consumer.
+ * Each thread publishes its counter with a release store after it has written
+ * or cleared the slot, and reads the other one with an acquire load, so no
+ * lock and no compare-and-set is needed. Each side also caches the last value
+ * it read of the other's counter, and only reads the shared one again when the
+ * cache says the ring is full (producer) or empty (consumer).
+ *
+ * head and tail sit in separate superclasses between blocks of padding, since
+ * the JVM lays out a superclass's fields before its subclass's. The two threads
+ * then never write to the same cache line.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class SpscRingDeque<T> extends SpscPad2 implements Deque<T> {
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(SpscHead.class, "head", long.class);
+            TAIL = lookup.findVarHandle(SpscTail.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The ring; slot i & mask holds the item with index i. */
+    private final Object[] items;
+    /** items.length - 1, which maps any index into the ring */
+    private final int mask;
+
+    /**
+     * Constructs an empty deque that holds up to capacity items, rounded up to
+     * a power of two.
+     *
+     * @param capacity the least number of items the deque holds before it is full
+     */
+    public SpscRingDeque(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity: " + capacity);
+        }
+        int length = 1;
+        while (length < capacity) {
+            length *= 2;
+        }
+        items = new Object[length];
+        mask = length - 1;
+    }
+
+    /**
+     * Returns the number of items the deque holds when it is full.
+     *
+     * @return the capacity of the ring
+     */
+    public int capacity() {
+        return items.length;
+    }
+
+    /* ---------------------- Producer side ---------------------- */
+
+    /**
+     * Adds an item at the back if there is room. Producer thread only.
+     *
+     * @param item the item to add
+     * @return whether the item was added
+     * @throws NullPointerException if item is null, which removeFirst uses to mean empty
+     */
+    public boolean offer(T item) {
+        Objects.requireNonNull(item);
+        long t = (long) TAIL.get(this);  // Plain read: only this thread writes tail
+        if (t - headCache >= items.length) {
+            headCache = (long) HEAD.getAcquire(this);
+            if (t - headCache >= items.length) {
+                return false;
+            }
+        }
+        items[(int) t & mask] = item;
+        TAIL.setRelease(this, t + 1);
+        return true;
+    }
+
+    /**
+     * Adds as many items from the front of the list as there is room for, and
+     * publishes them all with one release store. Producer thread only.
+     *
+     * @param batch the items to add, in order
+     * @return the number of items added, all from the start of the list
+     * @throws NullPointerException if one of the items that fit is null; none
+     *     are added then
+     */
+    public int offerAll(List<? extends T> batch) {
+        long t = (long) TAIL.get(this);
+        long room = items.length - (t - headCache);
+        if (room < batch.size()) {
+            headCache = (long) HEAD.getAcquire(this);
+            room = items.length - (t - headCache);
+        }
+        int n = (int) Math.min(room, batch.size());
+        for (int i = 0; i < n; i++) {
+            Objects.requireNonNull(batch.get(i));
+        }
+        for (int i = 0; i < n; i++) {
+            items[(int) (t + i) & mask] = batch.get(i);
+        }
+        if (n > 0) {
+            TAIL.setRelease(this, t + n);
+        }
+        return n;
+    }
+
+    /**
+     * Adds an item to the back of the deque. Producer thread only.
+     *
+     * @param item the item to add
+     * @throws IllegalStateException if the deque is full
+     */
+    @Override
+    public void addLast(T item) {
+        if (!offer(item)) {
+            throw new IllegalStateException("Deque full");
+        }
+    }
+
+    /**
+     * Unsupported: only the producer adds, and only at the back.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addFirst(T item) {
+        throw new UnsupportedOperationException("addFirst on a single-producer queue");
+    }
+
+    /* ---------------------- Consumer side ---------------------- */
+
+    /**
+     * Removes and returns the first item in the deque. Consumer thread only.
+     *
+     * @return the first item, or null if the deque is empty
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T removeFirst() {
+        long h = (long) HEAD.get(this);  // Plain read: only this thread writes head
+        if (h >= tailCache) {
+            tailCache = (long) TAIL.getAcquire(this);
+            if (h >= tailCache) {
+                return null;
+            }
+        }
+        int index = (int) h & mask;
+        T item = (T) items[index];
+        items[index] = null;  // Help with garbage collection
+        HEAD.setRelease(this, h + 1);
+        return item;
+    }
+
+    /**
+     * Passes up to max items from the front of the deque to action, in order,
+     * and frees their slots with one release store. Consumer thread only.
+     * If action throws, the items already passed to it, including the one it
+     * threw on, are taken and the rest stay in the deque.
+     *
+     * @param action what to do with each item
+     * @param max the most items to take
+     * @return the number of items taken
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Consumer<? super T> action, int max) {
+        long h = (long) HEAD.get(this);
+        if (h + max > tailCache) {
+            tailCache = (long) TAIL.getAcquire(this);
+        }
+        int n = (int) Math.max(0, Math.min(max, tailCache - h));
+        int taken = 0;
+        try {
+            while (taken < n) {
+                int index = (int) (h + taken) & mask;
+                T item = (T) items[index];
+                items[index] = null;
+                taken++;
+                action.accept(item);
+            }
+        } finally {
+            if (taken > 0) {
+                // Publishes exactly the slots cleared above, even if action threw
+                HEAD.setRelease(this, h + taken);
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Unsupported: only the consumer removes, and only from the front.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public T removeLast() {
+        throw new UnsupportedOperationException("removeLast on a single-consumer queue");
+    }
+
+    /**
+     * Gets the item at the given index from the front. Consumer thread only,
+     * since the producer could add items meanwhile but never removes any.
+     *
+     * @param index the index of the item to get
+     * @return the item at the index, or null if there is no such item yet
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        long h = (long) HEAD.get(this);
+        if (index < 0 || h + index >= (long) TAIL.getAcquire(this)) {
+            return null;
+        }
+        return (T) items[(int) (h + index) & mask];
+    }
+
+    /**
+     * Returns the number of items in the deque. Exact on either thread for the
+     * counter it owns; the other counter may move while it is read.
+     *
+     * @return the size of the deque
+     */
+    @Override
+    public int size() {
+        long h = (long) HEAD.getAcquire(this);
+        long t = (long) TAIL.getAcquire(this);
+        return (int) Math.max(0, Math.min(items.length, t - h));
+    }
+
+    /**
+     * Prints the items from front to back. Consumer thread only.
+     */
+    @Override
+    public void printDeque() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<T> it = iterator();
+        while (it.hasNext()) {
+            sb.append(it.next());
+            if (it.hasNext()) {
+                sb.append(" ");
+            }
+        }
+        sb.append("]");
+        System.out.println(sb.toString());
+    }
+
+    /**
+     * Returns an iterator over the items that were in the deque when it was
+     * created, front to back. Consumer thread only.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        long start = (long) HEAD.get(this);
+        long end = (long) TAIL.getAcquire(this);
+        return new Iterator<>() {
+            private long next = start;
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (T) items[(int) next++ & mask];
+            }
+        };
+    }
+}
+
+/** Padding that keeps the producer's fields off the cache line of the object header. */
+abstract class SpscPad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p08, p09, p0a, p0b, p0c, p0d, p0e, p0f;
+}
+
+/** The producer's counter, and its last view of the consumer's. */
+abstract class SpscTail extends SpscPad0 {
+    /** Index of the next item to add; written by the producer only */
+    volatile long tail;
+    /** The producer's last read of head */
+    long headCache;
+}
+
+/** Padding between the producer's and the consumer's fields. */
+abstract class SpscPad1 extends SpscTail {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+    long p18, p19, p1a, p1b, p1c, p1d, p1e, p1f;
+}
+
+/** The consumer's counter, and its last view of the producer's. */
+abstract class SpscHead extends SpscPad1 {
+    /** Index of the next item to remove; written by the consumer only */
+    volatile long head;
+    /** The consumer's last read of tail */
+    long tailCache;
+}
+
+/** Padding that keeps the consumer's fields off the cache line of the ring's own fields. */
+abstract class SpscPad2 extends SpscHead {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+    long p28, p29, p2a, p2b, p2c, p2d, p2e, p2f;
+}
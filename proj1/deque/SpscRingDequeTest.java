@@ -0,0 +1,160 @@
+package deque;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** Tests of the single-producer, single-consumer ring. */
+public class SpscRingDequeTest {
+
+    @Test
+    /* Fills, empties and wraps the ring from one thread. */
+    public void singleThreadTest() {
+        SpscRingDeque<Integer> ring = new SpscRingDeque<>(5);
+        assertEquals(8, ring.capacity());
+        assertNull(ring.removeFirst());
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 8; i++) {
+                assertTrue(ring.offer(round * 8 + i));
+            }
+            assertFalse(ring.offer(-1));
+            assertEquals(8, ring.size());
+            assertEquals(round * 8, (int) ring.get(0));
+            assertEquals(round * 8 + 7, (int) ring.get(7));
+            assertNull(ring.get(8));
+            for (int i = 0; i < 8; i++) {
+                assertEquals(round * 8 + i, (int) ring.removeFirst());
+            }
+            assertTrue(ring.isEmpty());
+            ring.addLast(0);
+            ring.removeFirst();
+        }
+    }
+
+    @Test
+    /* offerAll adds what fits, and drainTo takes at most max. */
+    public void batchTest() {
+        SpscRingDeque<Integer> ring = new SpscRingDeque<>(8);
+        List<Integer> batch = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            batch.add(i);
+        }
+        assertEquals(8, ring.offerAll(batch));
+        assertEquals(0, ring.offerAll(batch.subList(8, 10)));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(3, ring.drainTo(drained::add, 3));
+        assertEquals(List.of(0, 1, 2), drained);
+        assertEquals(2, ring.offerAll(batch.subList(8, 10)));
+
+        List<Integer> rest = new ArrayList<>();
+        for (int item : ring) {
+            rest.add(item);
+        }
+        assertEquals(batch.subList(3, 10), rest);
+        assertEquals(7, ring.drainTo(drained::add, 100));
+        assertEquals(batch, drained);
+        assertEquals(0, ring.drainTo(drained::add, 100));
+    }
+
+    @Test
+    /* An action that throws keeps the items it was given taken and the rest queued. */
+    public void drainToThrowsTest() {
+        SpscRingDeque<Integer> ring = new SpscRingDeque<>(8);
+        for (int i = 0; i < 5; i++) {
+            ring.offer(i);
+        }
+        List<Integer> drained = new ArrayList<>();
+        try {
+            ring.drainTo(item -> {
+                drained.add(item);
+                if (item == 1) {
+                    throw new IllegalStateException("boom");
+                }
+            }, 8);
+            fail("the action's exception should propagate");
+        } catch (IllegalStateException e) {
+            assertEquals(List.of(0, 1), drained);
+        }
+        assertEquals(3, ring.size());
+        assertEquals(2, (int) ring.removeFirst());
+        assertEquals(2, ring.drainTo(drained::add, 8));
+        assertEquals(List.of(0, 1, 3, 4), drained);
+        assertNull(ring.removeFirst());
+    }
+
+    @Test
+    /* null can't be added, since removeFirst returns null for empty. */
+    public void nullItemTest() {
+        SpscRingDeque<Integer> ring = new SpscRingDeque<>(4);
+        try {
+            ring.offer(null);
+            fail("offer(null) should throw");
+        } catch (NullPointerException e) {
+            // expected
+        }
+        try {
+            ring.offerAll(Arrays.asList(1, null));
+            fail("offerAll with a null item should throw");
+        } catch (NullPointerException e) {
+            // expected
+        }
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addToFullTest() {
+        SpscRingDeque<Integer> ring = new SpscRingDeque<>(1);
+        ring.addLast(1);
+        ring.addLast(2);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void removeLastTest() {
+        new SpscRingDeque<Integer>(4).removeLast();
+    }
+
+    @Test(timeout = 60000)
+    /* A producer and a consumer thread pass a million items through a small ring, in order. */
+    public void twoThreadTest() throws InterruptedException {
+        int n = 1000000;
+        SpscRingDeque<Integer> ring = new SpscRingDeque<>(64);
+        Thread producer = new Thread(() -> {
+            List<Integer> batch = new ArrayList<>();
+            int i = 0;
+            while (i < n) {
+                int added;
+                if (i % 3 == 0) {
+                    batch.clear();
+                    for (int j = i; j < Math.min(n, i + 10); j++) {
+                        batch.add(j);
+                    }
+                    added = ring.offerAll(batch);
+                } else {
+                    added = ring.offer(i) ? 1 : 0;
+                }
+                i += added;
+                if (added == 0) {
+                    Thread.yield(); // Full: let the consumer run, even on one core
+                }
+            }
+        });
+        producer.start();
+
+        int[] expected = {0};
+        while (expected[0] < n) {
+            Integer item = ring.removeFirst();
+            if (item != null) {
+                assertEquals(expected[0]++, (int) item);
+            }
+            int drained = ring.drainTo(next -> assertEquals(expected[0]++, (int) next), 5);
+            if (item == null && drained == 0) {
+                Thread.yield(); // Empty: let the producer run
+            }
+        }
+        producer.join();
+        assertNull(ring.removeFirst());
+    }
+}
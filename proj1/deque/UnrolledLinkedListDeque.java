@@ -0,0 +1,297 @@
+package deque;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A generic double-ended queue implementation using an unrolled linked list:
+ * a circular, doubly linked list of blocks, each holding up to BLOCK_SIZE
+ * items in an array. Adds and removes at either end are constant time, like
+ * LinkedListDeque, but a new block is needed only once every BLOCK_SIZE adds
+ * at an end, and iterating reads items from consecutive array slots instead of
+ * following one pointer per item.
+ *
+ * The items of a block sit in the contiguous slots [lo, hi). The last block
+ * fills towards the back and the first block towards the front, so a block
+ * added by addLast starts at slot 0 and a block added by addFirst starts at
+ * slot BLOCK_SIZE. A block that empties is unlinked, and the most recent one
+ * is kept as a spare for the next new block, so a queue that churns, adding
+ * at one end and removing at the other, allocates nothing once it is warm.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class UnrolledLinkedListDeque<T> implements Deque<T>, Iterable<T> {
+    /** Number of items a block holds */
+    static final int BLOCK_SIZE = 64;
+
+    /** Sentinel block, with no slots; sentinel.next is the first block and sentinel.prev the last */
+    private final Block sentinel;
+    /** An empty, unlinked block kept for reuse, or null */
+    private Block spare;
+    /** Size of the deque */
+    private int size;
+
+    /** A block of items and its neighbours in the list. */
+    private static final class Block {
+        final Object[] items;
+        /** Slot of the first item */
+        int lo;
+        /** Slot one past the last item */
+        int hi;
+        Block prev;
+        Block next;
+
+        Block(int capacity) {
+            items = new Object[capacity];
+        }
+    }
+
+    /**
+     * Constructs an empty unrolled deque. No block is allocated until the first add.
+     */
+    public UnrolledLinkedListDeque() {
+        sentinel = new Block(0);
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+        size = 0;
+    }
+
+    /**
+     * Adds an item to the front of the deque.
+     * Time complexity: O(1)
+     *
+     * @param item the item to add
+     */
+    @Override
+    public void addFirst(T item) {
+        Block first = sentinel.next;
+        if (first == sentinel || first.lo == 0) {
+            first = newBlock(BLOCK_SIZE);
+            linkAfter(sentinel, first);
+        }
+        first.items[--first.lo] = item;
+        size++;
+    }
+
+    /**
+     * Adds an item to the back of the deque.
+     * Time complexity: O(1)
+     *
+     * @param item the item to add
+     */
+    @Override
+    public void addLast(T item) {
+        Block last = sentinel.prev;
+        if (last == sentinel || last.hi == BLOCK_SIZE) {
+            last = newBlock(0);
+            linkAfter(sentinel.prev, last);
+        }
+        last.items[last.hi++] = item;
+        size++;
+    }
+
+    /**
+     * Removes and returns the first item in the deque.
+     * Time complexity: O(1)
+     *
+     * @return the first item in the deque, or null if the deque is empty
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T removeFirst() {
+        Block first = sentinel.next;
+        if (first == sentinel) {
+            return null;
+        }
+        T item = (T) first.items[first.lo];
+        first.items[first.lo++] = null;  // Help with garbage collection
+        size--;
+        if (first.lo == first.hi) {
+            unlink(first);
+        }
+        return item;
+    }
+
+    /**
+     * Removes and returns the last item in the deque.
+     * Time complexity: O(1)
+     *
+     * @return the last item in the deque, or null if the deque is empty
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T removeLast() {
+        Block last = sentinel.prev;
+        if (last == sentinel) {
+            return null;
+        }
+        T item = (T) last.items[--last.hi];
+        last.items[last.hi] = null;  // Help with garbage collection
+        size--;
+        if (last.lo == last.hi) {
+            unlink(last);
+        }
+        return item;
+    }
+
+    /**
+     * Returns an empty block with both bounds at the given slot, the spare if there is one.
+     *
+     * @param start the slot the first item goes next to, 0 or BLOCK_SIZE
+     * @return an unlinked, empty block
+     */
+    private Block newBlock(int start) {
+        Block block = spare;
+        if (block == null) {
+            block = new Block(BLOCK_SIZE);
+        } else {
+            spare = null;
+        }
+        block.lo = start;
+        block.hi = start;
+        return block;
+    }
+
+    /** Links block into the list right after prev. */
+    private void linkAfter(Block prev, Block block) {
+        block.prev = prev;
+        block.next = prev.next;
+        prev.next.prev = block;
+        prev.next = block;
+    }
+
+    /**
+     * Unlinks an empty block and keeps it as the spare. Its slots were all
+     * cleared as its items were removed, so the spare holds on to no items.
+     */
+    private void unlink(Block block) {
+        block.prev.next = block.next;
+        block.next.prev = block.prev;
+        block.prev = null;
+        block.next = null;
+        spare = block;
+    }
+
+    /**
+     * Gets the item at the specified index, walking blocks from the nearer end.
+     * Time complexity: O(n / BLOCK_SIZE)
+     *
+     * @param index the index of the item to get
+     * @return the item at the specified index, or null if there is no such item
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        if (index < size / 2) {
+            Block block = sentinel.next;
+            while (index >= block.hi - block.lo) {
+                index -= block.hi - block.lo;
+                block = block.next;
+            }
+            return (T) block.items[block.lo + index];
+        }
+        int fromBack = size - 1 - index;
+        Block block = sentinel.prev;
+        while (fromBack >= block.hi - block.lo) {
+            fromBack -= block.hi - block.lo;
+            block = block.prev;
+        }
+        return (T) block.items[block.hi - 1 - fromBack];
+    }
+
+    /**
+     * Returns the number of items in the deque.
+     * Time complexity: O(1)
+     *
+     * @return the size of the deque
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Prints all items in the deque from front to back.
+     * Time complexity: O(n)
+     */
+    @Override
+    public void printDeque() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<T> it = iterator();
+        while (it.hasNext()) {
+            sb.append(it.next());
+            if (it.hasNext()) {
+                sb.append(" ");
+            }
+        }
+        sb.append("]");
+        System.out.println(sb.toString());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof UnrolledLinkedListDeque<?>)) {
+            return false;
+        }
+        UnrolledLinkedListDeque<?> other = (UnrolledLinkedListDeque<?>) o;
+        if (size != other.size) {
+            return false;
+        }
+        Iterator<T> thisIterator = iterator();
+        Iterator<?> otherIterator = other.iterator();
+        while (thisIterator.hasNext()) {
+            if (!Objects.equals(thisIterator.next(), otherIterator.next())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Combines the items' hash codes in order, as java.util.List does, to agree with equals. */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (T item : this) {
+            hash = 31 * hash + Objects.hashCode(item);
+        }
+        return hash;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new BlockIterator();
+    }
+
+    private class BlockIterator implements Iterator<T> {
+        /** Block holding the next item, or the sentinel once every item is visited */
+        private Block block = sentinel.next;
+        /** Slot of the next item in block */
+        private int slot = block.lo;
+
+        @Override
+        public boolean hasNext() {
+            return block != sentinel;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T item = (T) block.items[slot++];
+            if (slot == block.hi) {
+                block = block.next;
+                slot = block.lo;
+            }
+            return item;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package deque;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** Tests of UnrolledLinkedListDeque, checked against java.util.ArrayDeque. */
+public class UnrolledLinkedListDequeTest {
+
+    @Test
+    /* Random adds and removes at both ends, through many blocks being linked and unlinked. */
+    public void randomizedTest() {
+        UnrolledLinkedListDeque<Integer> uld = new UnrolledLinkedListDeque<>();
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        Random r = new Random(25);
+        for (int i = 0; i < 100000; i++) {
+            // Drifts between growing and shrinking phases, so the deque empties out now and then
+            boolean growing = (i / 2000) % 2 == 0;
+            int op = r.nextInt(growing ? 6 : 4);
+            if (op == 0) {
+                assertEquals(expected.pollFirst(), uld.removeFirst());
+            } else if (op == 1) {
+                assertEquals(expected.pollLast(), uld.removeLast());
+            } else if (op % 2 == 0) {
+                uld.addFirst(i);
+                expected.addFirst(i);
+            } else {
+                uld.addLast(i);
+                expected.addLast(i);
+            }
+            assertEquals(expected.size(), uld.size());
+            if (!expected.isEmpty()) {
+                assertEquals(expected.peekFirst(), uld.get(0));
+                assertEquals(expected.peekLast(), uld.get(uld.size() - 1));
+            }
+        }
+        assertEquals(new ArrayList<>(expected), toList(uld));
+    }
+
+    @Test
+    /* get walks from either end across blocks filled from the front and from the back. */
+    public void getTest() {
+        UnrolledLinkedListDeque<Integer> uld = new UnrolledLinkedListDeque<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            uld.addFirst(-i);
+            expected.add(0, -i);
+            uld.addLast(i);
+            expected.add(i);
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), uld.get(i));
+        }
+        assertNull(uld.get(-1));
+        assertNull(uld.get(uld.size()));
+    }
+
+    @Test
+    /* Queue churn around a block boundary keeps order, and an emptied deque is reusable. */
+    public void churnTest() {
+        UnrolledLinkedListDeque<Integer> uld = new UnrolledLinkedListDeque<>();
+        assertFalse(uld.iterator().hasNext());
+        assertNull(uld.removeFirst());
+        assertNull(uld.removeLast());
+        int size = UnrolledLinkedListDeque.BLOCK_SIZE;
+        for (int i = 0; i < size; i++) {
+            uld.addLast(i);
+        }
+        for (int i = size; i < 10 * size; i++) {
+            assertEquals(i - size, (int) uld.removeFirst());
+            uld.addLast(i);
+            assertEquals(size, uld.size());
+        }
+        for (int i = 0; i < 3; i++) {
+            uld.addLast(-1);
+            assertEquals(-1, (int) uld.removeLast());
+        }
+        int expected = 9 * size;
+        for (int item : uld) {
+            assertEquals(expected++, item);
+        }
+        while (!uld.isEmpty()) {
+            uld.removeLast();
+        }
+        assertFalse(uld.iterator().hasNext());
+        uld.addFirst(1);
+        assertEquals(List.of(1), toList(uld));
+    }
+
+    @Test
+    /* Deques with the same items in order are equal and hash alike, whatever their block layout. */
+    public void equalsAndHashCodeTest() {
+        UnrolledLinkedListDeque<Integer> front = new UnrolledLinkedListDeque<>();
+        UnrolledLinkedListDeque<Integer> back = new UnrolledLinkedListDeque<>();
+        for (int i = 0; i < 200; i++) {
+            front.addFirst(199 - i);
+            back.addLast(i);
+        }
+        assertEquals(front, back);
+        assertEquals(front.hashCode(), back.hashCode());
+        assertEquals(toList(back).hashCode(), back.hashCode());
+        back.removeLast();
+        assertNotEquals(front, back);
+    }
+
+    private static <T> List<T> toList(Iterable<T> items) {
+        List<T> list = new ArrayList<>();
+        for (T item : items) {
+            list.add(item);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,218 @@
+package deque;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A lock-free work-stealing deque (Chase and Lev, "Dynamic Circular
+ * Work-Stealing Deque", 2005). One owner thread pushes and pops work at the
+ * back with addLast and removeLast, like a stack, so it keeps working on what
+ * it added most recently. Any number of thief threads take the oldest work
+ * from the front with removeFirst. addFirst is unsupported.
+ *
+ * The items live in a circular array between two counters: top, the index of
+ * the front, which only grows and which thieves advance with a compare-and-set,
+ * and bottom, one past the back, which only the owner writes. The owner and a
+ * thief only race for the last item, and the compare-and-set on top settles
+ * it. When the array is full the owner copies it into one twice the size;
+ * thieves still holding the old array read the same items from it.
+ *
+ * A removeFirst that loses a race returns null even if the deque is not empty,
+ * so thieves treat null as "try elsewhere", not as "empty". Stolen slots are
+ * not cleared, since the owner may already be reusing them, so up to capacity
+ * taken items stay reachable until they are overwritten.
+ *
+ * @param <T> the type of elements held in this deque
+ */
+public class WorkStealingDeque<T> implements Deque<T> {
+    private static final VarHandle TOP;
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(WorkStealingDeque.class, "top", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Initial capacity of the array, a power of two */
+    private static final int INITIAL_CAPACITY = 32;
+
+    /** Index of the first item; advanced by thieves and by the owner taking the last item */
+    private volatile long top;
+    /** Index one past the last item; written by the owner only */
+    private volatile long bottom;
+    /** The ring; slot i & (length - 1) holds the item with index i */
+    private volatile Object[] items = new Object[INITIAL_CAPACITY];
+
+    /**
+     * Adds an item to the back of the deque, growing the array if it is full.
+     * Owner thread only.
+     *
+     * @param item the item to add
+     */
+    @Override
+    public void addLast(T item) {
+        long b = bottom;
+        long t = top;
+        Object[] a = items;
+        if (b - t >= a.length) {
+            a = grow(a, t, b);
+        }
+        a[(int) b & (a.length - 1)] = item;
+        bottom = b + 1;  // Publishes the item to thieves
+    }
+
+    /** Copies the items with indexes [t, b) into an array twice as long and returns it. */
+    private Object[] grow(Object[] a, long t, long b) {
+        Object[] bigger = new Object[a.length * 2];
+        for (long i = t; i < b; i++) {
+            bigger[(int) i & (bigger.length - 1)] = a[(int) i & (a.length - 1)];
+        }
+        items = bigger;
+        return bigger;
+    }
+
+    /**
+     * Unsupported: the owner adds at the back only.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addFirst(T item) {
+        throw new UnsupportedOperationException("addFirst on a work-stealing deque");
+    }
+
+    /**
+     * Removes and returns the last item in the deque. Owner thread only.
+     *
+     * @return the last item, or null if the deque is empty
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T removeLast() {
+        long b = bottom - 1;
+        Object[] a = items;
+        // Claims index b before looking at top, so a thief that reads top after
+        // this also sees the smaller bottom and leaves index b alone
+        bottom = b;
+        long t = top;
+        if (t > b) {
+            bottom = b + 1;  // Empty: undo the claim
+            return null;
+        }
+        int index = (int) b & (a.length - 1);
+        T item = (T) a[index];
+        if (t == b) {
+            // The last item: race the thieves for it by taking top past it
+            if (!TOP.compareAndSet(this, t, t + 1)) {
+                item = null;
+            }
+            bottom = b + 1;
+        }
+        if (item != null) {
+            a[index] = null;  // No thief can take index b any more; help with garbage collection
+        }
+        return item;
+    }
+
+    /**
+     * Takes and returns the first item in the deque. Safe to call from any
+     * thread.
+     *
+     * @return the first item, or null if the deque is empty or another thread
+     *     took the item first
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T removeFirst() {
+        long t = top;
+        long b = bottom;
+        if (t >= b) {
+            return null;
+        }
+        Object[] a = items;
+        T item = (T) a[(int) t & (a.length - 1)];
+        if (!TOP.compareAndSet(this, t, t + 1)) {
+            return null;
+        }
+        return item;
+    }
+
+    /**
+     * Gets the item at the given index from the front. Owner thread only, and
+     * a snapshot: a thief may take the item meanwhile.
+     *
+     * @param index the index of the item to get
+     * @return the item at the index, or null if there is no such item
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        long t = top;
+        if (index < 0 || t + index >= bottom) {
+            return null;
+        }
+        Object[] a = items;
+        return (T) a[(int) (t + index) & (a.length - 1)];
+    }
+
+    /**
+     * Returns the number of items in the deque. Exact only while no thief is
+     * taking items.
+     *
+     * @return the size of the deque
+     */
+    @Override
+    public int size() {
+        long t = top;
+        return (int) Math.max(0, bottom - t);
+    }
+
+    /**
+     * Prints the items from front to back. Owner thread only.
+     */
+    @Override
+    public void printDeque() {
+        StringBuilder sb = new StringBuilder("[");
+        Iterator<T> it = iterator();
+        while (it.hasNext()) {
+            sb.append(it.next());
+            if (it.hasNext()) {
+                sb.append(" ");
+            }
+        }
+        sb.append("]");
+        System.out.println(sb.toString());
+    }
+
+    /**
+     * Returns an iterator over the items in the deque when it was created,
+     * front to back. Owner thread only, and a snapshot like get.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        long start = top;
+        long end = bottom;
+        Object[] a = items;
+        return new Iterator<>() {
+            private long next = start;
+
+            @Override
+            public boolean hasNext() {
+                return next < end;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (T) a[(int) next++ & (a.length - 1)];
+            }
+        };
+    }
+}
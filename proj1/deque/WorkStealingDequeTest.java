@@ -0,0 +1,162 @@
+package deque;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** Tests of the work-stealing deque and the scheduler built on it. */
+public class WorkStealingDequeTest {
+
+    @Test
+    /* The owner's end behaves like a stack and a thief's end like a queue, across growth. */
+    public void singleThreadTest() {
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        assertNull(deque.removeLast());
+        assertNull(deque.removeFirst());
+        for (int i = 0; i < 100; i++) {
+            deque.addLast(i);
+        }
+        assertEquals(100, deque.size());
+        assertEquals(0, (int) deque.get(0));
+        assertEquals(99, (int) deque.get(99));
+        assertEquals(0, (int) deque.removeFirst());
+        assertEquals(99, (int) deque.removeLast());
+        List<Integer> rest = new ArrayList<>();
+        for (int item : deque) {
+            rest.add(item);
+        }
+        assertEquals(98, rest.size());
+        assertEquals(1, (int) rest.get(0));
+        for (int i = 98; i >= 1; i--) {
+            assertEquals(i, (int) deque.removeLast());
+        }
+        assertTrue(deque.isEmpty());
+        assertNull(deque.removeLast());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void addFirstTest() {
+        new WorkStealingDeque<Integer>().addFirst(1);
+    }
+
+    @Test(timeout = 60000)
+    /* While the owner pushes and pops, thieves steal; every item is taken exactly once. */
+    public void concurrentStealTest() throws InterruptedException {
+        int n = 200000;
+        WorkStealingDeque<Integer> deque = new WorkStealingDeque<>();
+        AtomicLongArray taken = new AtomicLongArray(n);
+        AtomicLong remaining = new AtomicLong(n);
+        Thread[] thieves = new Thread[3];
+        for (int i = 0; i < thieves.length; i++) {
+            thieves[i] = new Thread(() -> {
+                while (remaining.get() > 0) {
+                    Integer item = deque.removeFirst();
+                    if (item != null) {
+                        taken.incrementAndGet(item);
+                        remaining.decrementAndGet();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            });
+            thieves[i].start();
+        }
+        for (int i = 0; i < n; i++) {
+            deque.addLast(i);
+            if (i % 3 == 0) {
+                Integer item = deque.removeLast();
+                if (item != null) {
+                    taken.incrementAndGet(item);
+                    remaining.decrementAndGet();
+                }
+            }
+        }
+        while (remaining.get() > 0) {
+            Integer item = deque.removeLast();
+            if (item != null) {
+                taken.incrementAndGet(item);
+                remaining.decrementAndGet();
+            } else {
+                Thread.yield();
+            }
+        }
+        for (Thread thief : thieves) {
+            thief.join();
+        }
+        for (int i = 0; i < n; i++) {
+            assertEquals("item " + i, 1, taken.get(i));
+        }
+    }
+
+    @Test(timeout = 60000)
+    /* Tasks that fork tasks sum a range, and awaitQuiescence waits for all of them. */
+    public void schedulerTest() {
+        try (WorkStealingScheduler scheduler = new WorkStealingScheduler(4)) {
+            AtomicLong sum = new AtomicLong();
+            scheduler.fork(new RangeSum(scheduler, sum, 0, 100000));
+            scheduler.awaitQuiescence();
+            assertEquals(100000L * 99999 / 2, sum.get());
+
+            scheduler.fork(() -> {
+                throw new IllegalStateException("boom");
+            });
+            try {
+                scheduler.awaitQuiescence();
+                fail("the task's exception should be rethrown");
+            } catch (RuntimeException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        }
+    }
+
+    @Test(timeout = 60000)
+    /* close runs every task already forked, then refuses new ones from outside. */
+    public void schedulerCloseTest() {
+        WorkStealingScheduler scheduler = new WorkStealingScheduler(2);
+        AtomicLong sum = new AtomicLong();
+        scheduler.fork(new RangeSum(scheduler, sum, 0, 100000));
+        scheduler.close();
+        assertEquals(100000L * 99999 / 2, sum.get());
+        scheduler.awaitQuiescence();
+        try {
+            scheduler.fork(() -> { });
+            fail("fork after close should throw");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        scheduler.awaitQuiescence();
+    }
+
+    /** Adds lo + ... + (hi - 1) to sum, forking a task for each half of a big range. */
+    private static class RangeSum implements Runnable {
+        private final WorkStealingScheduler scheduler;
+        private final AtomicLong sum;
+        private final int lo;
+        private final int hi;
+
+        RangeSum(WorkStealingScheduler scheduler, AtomicLong sum, int lo, int hi) {
+            this.scheduler = scheduler;
+            this.sum = sum;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        public void run() {
+            if (hi - lo <= 100) {
+                long local = 0;
+                for (int i = lo; i < hi; i++) {
+                    local += i;
+                }
+                sum.addAndGet(local);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            scheduler.fork(new RangeSum(scheduler, sum, lo, mid));
+            scheduler.fork(new RangeSum(scheduler, sum, mid, hi));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package deque;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A small fork-join style scheduler on WorkStealingDeques. Each worker thread
+ * owns a deque: a task forked from inside a worker goes on the back of that
+ * worker's deque, and the worker runs its newest task first. A worker with an
+ * empty deque takes tasks forked from outside, then steals the oldest task of
+ * a random other worker, which in divide-and-conquer code is usually the
+ * biggest piece of work left. Workers that find nothing park for a moment and
+ * look again.
+ *
+ * awaitQuiescence waits until every forked task, including those forked by
+ * other tasks, has run. A task that throws does not stop the others; the
+ * first failure is rethrown by awaitQuiescence. close lets the workers run
+ * every task already forked, and any tasks those fork, before they stop.
+ */
+public class WorkStealingScheduler implements AutoCloseable {
+    /** How long an idle worker parks before looking for work again */
+    private static final long IDLE_NANOS = 50_000;
+
+    private final Worker[] workers;
+    /** Tasks forked by threads that are not workers */
+    private final ConcurrentLinkedQueue<Runnable> submissions = new ConcurrentLinkedQueue<>();
+    /** Tasks forked but not yet finished */
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean closed;
+
+    /** A worker thread and the deque it owns. */
+    private final class Worker extends Thread {
+        final WorkStealingDeque<Runnable> tasks = new WorkStealingDeque<>();
+
+        Worker(int index) {
+            super("work-stealing-worker-" + index);
+            setDaemon(true);
+        }
+
+        WorkStealingScheduler owner() {
+            return WorkStealingScheduler.this;
+        }
+
+        @Override
+        public void run() {
+            // Once closed, keeps going until no forked task is left anywhere
+            while (!closed || pending.get() > 0) {
+                Runnable task = findTask();
+                if (task == null) {
+                    LockSupport.parkNanos(IDLE_NANOS);
+                } else {
+                    runTask(task);
+                }
+            }
+        }
+
+        /** Returns a task from this worker's deque, the submissions or another worker, or null. */
+        private Runnable findTask() {
+            Runnable task = tasks.removeLast();
+            if (task == null) {
+                task = submissions.poll();
+            }
+            int n = workers.length;
+            int start = n > 1 ? ThreadLocalRandom.current().nextInt(n) : 0;
+            for (int i = 0; task == null && i < n; i++) {
+                Worker victim = workers[(start + i) % n];
+                if (victim != this) {
+                    task = victim.tasks.removeFirst();
+                }
+            }
+            return task;
+        }
+    }
+
+    /**
+     * Starts a scheduler with the given number of worker threads.
+     *
+     * @param threads the number of workers
+     */
+    public WorkStealingScheduler(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads: " + threads);
+        }
+        workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker worker : workers) {
+            worker.start();
+        }
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return the number of workers
+     */
+    public int threads() {
+        return workers.length;
+    }
+
+    /**
+     * Schedules a task to run on some worker. Safe to call from any thread,
+     * including from inside a running task. After close, only running tasks
+     * may still fork.
+     *
+     * @param task the task to run
+     * @throws IllegalStateException if called from outside a task after close
+     */
+    public void fork(Runnable task) {
+        // Counted before closed is read, so a worker can't stop while this task is on its way
+        pending.incrementAndGet();
+        if (isOwnWorker(Thread.currentThread())) {
+            ((Worker) Thread.currentThread()).tasks.addLast(task);
+        } else if (closed) {
+            pending.decrementAndGet();
+            throw new IllegalStateException("Scheduler closed");
+        } else {
+            submissions.add(task);
+        }
+    }
+
+    private boolean isOwnWorker(Thread thread) {
+        return thread instanceof Worker && ((Worker) thread).owner() == this;
+    }
+
+    private void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Waits until every forked task has finished. Must not be called from a task.
+     *
+     * @throws RuntimeException wrapping the first exception a task threw, if any
+     */
+    public void awaitQuiescence() {
+        while (pending.get() > 0) {
+            LockSupport.parkNanos(IDLE_NANOS);
+        }
+        Throwable e = failure.getAndSet(null);
+        if (e != null) {
+            throw new RuntimeException("A forked task failed", e);
+        }
+    }
+
+    /**
+     * Stops accepting tasks from outside and waits for the workers to run
+     * every task already forked and then exit, so no task is dropped. A
+     * failure of one of those tasks is still rethrown by a later
+     * awaitQuiescence. Called from inside a task, it returns without waiting.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (isOwnWorker(Thread.currentThread())) {
+            return;
+        }
+        boolean interrupted = false;
+        for (Worker worker : workers) {
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;  // Keeps waiting, and restores the flag at the end
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
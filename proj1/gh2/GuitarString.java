@@ -1,7 +1,7 @@
 package gh2;
 
-import deque.ArrayDeque;
-import deque.Deque;
+import deque.DoubleArrayDeque;
+import deque.DoubleDeque;
 import net.sf.saxon.expr.Component;
 
 //Note: This file will not compile until you complete the Deque implementations
@@ -12,8 +12,8 @@ public class GuitarString implements Note{
     private static final int SR = 44100;      // Sampling Rate
     private static final double DECAY = .996; // energy decay factor
     private final int capacity;
-    /* Buffer for storing sound data. */
-     private Deque<Double> buffer;
+    /* Buffer for storing sound data, unboxed so that tic() allocates nothing. */
+     private DoubleDeque buffer;
 
     /* Create a guitar string of the given frequency.  */
     public GuitarString(double frequency) {
@@ -21,7 +21,7 @@ public class GuitarString implements Note{
         capacity = (int) Math.round(SR / frequency);
 
         // Initialize the deque
-        buffer = new ArrayDeque<Double>(); // Instantiate the buffer with the capacity
+        buffer = new DoubleArrayDeque(capacity); // Instantiate the buffer with the capacity
 
         // initialize the deque by filling in zeroes
         for (int i = 0;i < capacity;i += 1){
@@ -33,13 +33,10 @@ public class GuitarString implements Note{
     /* Pluck the guitar string by replacing the buffer with white noise. */
     @Override
     public void pluck() {
-        // Remove all items from the deque
-        for ( int i = 0;i < capacity;i += 1){
-            buffer.removeLast();
-        }
-        // add random doubles to the deque
+        // Replace each sample with a random double, keeping the buffer full so it never resizes
         for ( int i = 0;i < capacity;i += 1){
             double r = Math.random() - 0.5;
+            buffer.removeFirst();
             buffer.addLast(r);
         }
     }
@@ -0,0 +1,154 @@
+package deque;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks of the deques in this project. tic is the inner loop of
+ * GuitarString.tic: read the first two samples, remove the first and add one
+ * at the back of a buffer that stays the same size. growShrink fills and
+ * empties a deque, which resizes it up and back down, and boundaryChurn
+ * alternates a remove and an add at the size where a remove shrinks the
+ * array. Every score is the time for n operations; divide by n for the time
+ * per operation.
+ *
+ * Build and run from proj1 with
+ *     mvn -Pjmh package
+ *     java -jar target/benchmarks.jar ArrayDequeBenchmark
+ * and narrow a run with JMH options, for example
+ *     java -jar target/benchmarks.jar ArrayDequeBenchmark.tic -p deque=ArrayDeque
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+public class ArrayDequeBenchmark {
+    /** Seed of the sample and index generator. */
+    private static final long SEED = 61;
+
+    /** A buffer of capacity samples, like a GuitarString's, and n random indexes into it. */
+    @State(Scope.Thread)
+    public static class Buffer {
+        @Param({"ArrayDeque", "LinkedListDeque"})
+        public String deque;
+
+        /** 44100 / 440 Hz for concert A, and 44100 / 110 Hz for the lowest A in GuitarHero */
+        @Param({"100", "401"})
+        public int capacity;
+
+        @Param({"10000"})
+        public int n;
+
+        Deque<Double> buffer;
+        int[] indexes;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(SEED);
+            buffer = newDeque(deque);
+            for (int i = 0; i < capacity; i++) {
+                buffer.addLast(random.nextDouble() - 0.5);
+            }
+            indexes = new int[n];
+            for (int i = 0; i < n; i++) {
+                indexes[i] = random.nextInt(capacity);
+            }
+        }
+    }
+
+    /** An empty deque for the resizing workloads. */
+    @State(Scope.Thread)
+    public static class Empty {
+        @Param({"ArrayDeque", "LinkedListDeque"})
+        public String deque;
+
+        @Param({"1000", "100000"})
+        public int n;
+
+        Deque<Integer> items;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            items = newDeque(deque);
+        }
+    }
+
+    /** n Karplus-Strong steps on the buffer. */
+    @Benchmark
+    public double tic(Buffer b) {
+        Deque<Double> buffer = b.buffer;
+        double last = 0;
+        for (int i = 0; i < b.n; i++) {
+            last = 0.996 * 0.5 * (buffer.get(0) + buffer.get(1));
+            buffer.removeFirst();
+            buffer.addLast(last);
+        }
+        return last;
+    }
+
+    /** n gets at random indexes of the buffer. */
+    @Benchmark
+    public void get(Buffer b, Blackhole bh) {
+        for (int index : b.indexes) {
+            bh.consume(b.buffer.get(index));
+        }
+    }
+
+    /** Adds n items at the back and removes them from the front. */
+    @Benchmark
+    public void growShrink(Empty e, Blackhole bh) {
+        for (int i = 0; i < e.n; i++) {
+            e.items.addLast(i);
+        }
+        for (int i = 0; i < e.n; i++) {
+            bh.consume(e.items.removeFirst());
+        }
+    }
+
+    /**
+     * Fills the deque to the first size at which a removeLast shrinks the
+     * array, then alternates n removes and adds there.
+     */
+    @Benchmark
+    public void boundaryChurn(Empty e, Blackhole bh) {
+        Deque<Integer> items = e.items;
+        for (int i = 0; i < 64; i++) {
+            items.addLast(i);
+        }
+        while (items.size() > 16) {
+            items.removeLast();
+        }
+        for (int i = 0; i < e.n; i++) {
+            bh.consume(items.removeLast());
+            items.addLast(i);
+        }
+        while (!items.isEmpty()) {
+            items.removeLast();
+        }
+    }
+
+    /** Returns a new, empty deque of the type called NAME. */
+    static <T> Deque<T> newDeque(String name) {
+        switch (name) {
+            case "ArrayDeque": return new ArrayDeque<>();
+            case "LinkedListDeque": return new LinkedListDeque<>();
+            case "UnrolledLinkedListDeque": return new UnrolledLinkedListDeque<>();
+            default: throw new IllegalArgumentException("unknown deque: " + name);
+        }
+    }
+}
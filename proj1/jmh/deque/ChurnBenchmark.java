@@ -0,0 +1,91 @@
+package deque;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Churn workloads on a deque that stays at the same size: queueChurn adds at
+ * the back and removes from the front, like a FIFO queue, stackChurn adds and
+ * removes at the back, and iterate reads every item once. Run with -prof gc to
+ * see the bytes each deque allocates per operation; LinkedListDeque allocates
+ * a node per add, while ArrayDeque and UnrolledLinkedListDeque reuse their
+ * arrays. Every score is the time for n operations, or for one pass over the
+ * items for iterate.
+ *
+ * Build and run from proj1 with
+ *     mvn -Pjmh package
+ *     java -jar target/benchmarks.jar ChurnBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+public class ChurnBenchmark {
+
+    /** A deque holding size items. */
+    @State(Scope.Thread)
+    public static class Full {
+        @Param({"ArrayDeque", "LinkedListDeque", "UnrolledLinkedListDeque"})
+        public String deque;
+
+        @Param({"16", "1024", "100000"})
+        public int size;
+
+        @Param({"10000"})
+        public int n;
+
+        Deque<Integer> items;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            items = ArrayDequeBenchmark.newDeque(deque);
+            for (int i = 0; i < size; i++) {
+                items.addLast(i);
+            }
+        }
+    }
+
+    /** n removes from the front, each followed by an add at the back. */
+    @Benchmark
+    public void queueChurn(Full f, Blackhole bh) {
+        Deque<Integer> items = f.items;
+        for (int i = 0; i < f.n; i++) {
+            Integer item = items.removeFirst();
+            bh.consume(item);
+            items.addLast(item);
+        }
+    }
+
+    /** n removes from the back, each followed by an add at the back. */
+    @Benchmark
+    public void stackChurn(Full f, Blackhole bh) {
+        Deque<Integer> items = f.items;
+        for (int i = 0; i < f.n; i++) {
+            Integer item = items.removeLast();
+            bh.consume(item);
+            items.addLast(item);
+        }
+    }
+
+    /** One pass of the iterator over every item. */
+    @Benchmark
+    public void iterate(Full f, Blackhole bh) {
+        for (Integer item : f.items) {
+            bh.consume(item);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package deque;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.Control;
+
+/**
+ * Throughput of handing items from one producer thread to one consumer
+ * thread: through an ArrayDeque guarded by synchronized blocks and bounded to
+ * the same capacity, through SpscRingDeque one item at a time, and through
+ * SpscRingDeque in batches with offerAll and drainTo. Each group runs one
+ * producer and one consumer at the same time; the score of each method is its
+ * calls per microsecond, and a batch call moves up to BATCH items. A side that
+ * finds the queue full or empty yields, so that both make progress even on a
+ * single core.
+ *
+ * Build and run from proj1 with
+ *     mvn -Pjmh package
+ *     java -jar target/benchmarks.jar HandoffBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+public class HandoffBenchmark {
+    /** Items per offerAll and drainTo call. */
+    static final int BATCH = 64;
+
+    /** One queue of each kind, shared by the producer and consumer of a group. */
+    @State(Scope.Group)
+    public static class Queues {
+        @Param({"1024"})
+        public int capacity;
+
+        ArrayDeque<Integer> locked;
+        SpscRingDeque<Integer> ring;
+        List<Integer> batch;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            locked = new ArrayDeque<>();
+            ring = new SpscRingDeque<>(capacity);
+            batch = new ArrayList<>();
+            for (int i = 0; i < BATCH; i++) {
+                batch.add(i);
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public void lockedProduce(Queues q, Control control) {
+        while (!control.stopMeasurement) {
+            synchronized (q.locked) {
+                if (q.locked.size() < q.capacity) {
+                    q.locked.addLast(1);
+                    return;
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(1)
+    public Integer lockedConsume(Queues q, Control control) {
+        while (!control.stopMeasurement) {
+            Integer item;
+            synchronized (q.locked) {
+                item = q.locked.removeFirst();
+            }
+            if (item != null) {
+                return item;
+            }
+            Thread.yield();
+        }
+        return null;
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public void spscProduce(Queues q, Control control) {
+        while (!q.ring.offer(1) && !control.stopMeasurement) {
+            Thread.yield();
+        }
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public Integer spscConsume(Queues q, Control control) {
+        Integer item;
+        while ((item = q.ring.removeFirst()) == null && !control.stopMeasurement) {
+            Thread.yield();
+        }
+        return item;
+    }
+
+    @Benchmark
+    @Group("spscBatch")
+    @GroupThreads(1)
+    public int spscOfferAll(Queues q, Control control) {
+        int added;
+        while ((added = q.ring.offerAll(q.batch)) == 0 && !control.stopMeasurement) {
+            Thread.yield();
+        }
+        return added;
+    }
+
+    @Benchmark
+    @Group("spscBatch")
+    @GroupThreads(1)
+    public int spscDrainTo(Queues q, Control control, Blackhole bh) {
+        int taken;
+        while ((taken = q.ring.drainTo(bh::consume, BATCH)) == 0 && !control.stopMeasurement) {
+            Thread.yield();
+        }
+        return taken;
+    }
+}
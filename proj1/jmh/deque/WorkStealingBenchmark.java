@@ -0,0 +1,128 @@
+package deque;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+
+import gh2.GuitarString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scaling of WorkStealingScheduler from 1 to 8 worker threads on two batch
+ * workloads. rangeSum splits a range of N numbers in halves down to LEAF
+ * numbers and sums their square roots, so most tasks are forked by workers
+ * and idle workers steal. renderStrings renders a block of samples for each
+ * of GuitarPlayer's 128 strings, one task per string, each string writing
+ * only its own row. Compare the score for each thread count with the score
+ * for threads=1; the speedup is bounded by the number of cores.
+ *
+ * Build and run from proj1 with
+ *     mvn -Pjmh package
+ *     java -jar target/benchmarks.jar WorkStealingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+public class WorkStealingBenchmark {
+    /** Numbers summed by rangeSum. */
+    static final int N = 1 << 22;
+    /** Largest range rangeSum sums without forking. */
+    static final int LEAF = 1 << 12;
+    /** Strings rendered by renderStrings, as in GuitarPlayer. */
+    static final int STRINGS = 128;
+    /** Samples per string per renderStrings call, a tenth of a second. */
+    static final int BLOCK = 4410;
+
+    @State(Scope.Benchmark)
+    public static class Pool {
+        @Param({"1", "2", "4", "8"})
+        public int threads;
+
+        WorkStealingScheduler scheduler;
+        GuitarString[] strings;
+        double[][] samples;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            scheduler = new WorkStealingScheduler(threads);
+            strings = new GuitarString[STRINGS];
+            for (int i = 0; i < STRINGS; i++) {
+                strings[i] = new GuitarString(440.0 * Math.pow(2.0, (i - 69.0) / 12.0));
+                strings[i].pluck();
+            }
+            samples = new double[STRINGS][BLOCK];
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            scheduler.close();
+        }
+    }
+
+    @Benchmark
+    public double rangeSum(Pool p) {
+        DoubleAdder sum = new DoubleAdder();
+        p.scheduler.fork(new RangeSum(p.scheduler, sum, 0, N));
+        p.scheduler.awaitQuiescence();
+        return sum.sum();
+    }
+
+    @Benchmark
+    public double[][] renderStrings(Pool p) {
+        for (int i = 0; i < STRINGS; i++) {
+            GuitarString string = p.strings[i];
+            double[] row = p.samples[i];
+            p.scheduler.fork(() -> {
+                for (int s = 0; s < BLOCK; s++) {
+                    row[s] = string.sample();
+                    string.tic();
+                }
+            });
+        }
+        p.scheduler.awaitQuiescence();
+        return p.samples;
+    }
+
+    /** Adds the square roots of [lo, hi) to sum, forking a task for each half of a big range. */
+    static class RangeSum implements Runnable {
+        private final WorkStealingScheduler scheduler;
+        private final DoubleAdder sum;
+        private final int lo;
+        private final int hi;
+
+        RangeSum(WorkStealingScheduler scheduler, DoubleAdder sum, int lo, int hi) {
+            this.scheduler = scheduler;
+            this.sum = sum;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        public void run() {
+            if (hi - lo <= LEAF) {
+                double local = 0;
+                for (int i = lo; i < hi; i++) {
+                    local += Math.sqrt(i);
+                }
+                sum.add(local);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            scheduler.fork(new RangeSum(scheduler, sum, lo, mid));
+            scheduler.fork(new RangeSum(scheduler, sum, mid, hi));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package gh2;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import deque.ArrayDeque;
+import deque.Deque;
+import deque.DoubleArrayDeque;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time and allocation of the Karplus-Strong step, on a buffer of boxed
+ * Doubles in an ArrayDeque and on an unboxed DoubleArrayDeque, and of one
+ * second of audio from all GuitarHero strings. Each boxed step allocates a
+ * Double; run with the GC profiler to see the allocation per operation:
+ *     java -jar target/benchmarks.jar GuitarStringBenchmark -prof gc
+ * and read gc.alloc.rate.norm, the bytes allocated per benchmark call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+public class GuitarStringBenchmark {
+    /** Samples per second, the number of steps each benchmark call runs per string. */
+    private static final int SR = 44100;
+    /** Number of strings in GuitarHero */
+    private static final int STRINGS = 37;
+    /** Seed of the noise the buffers start with. */
+    private static final long SEED = 61;
+
+    /** The same noise in a boxed and an unboxed buffer. */
+    @State(Scope.Thread)
+    public static class Buffers {
+        /** 44100 / 440 Hz for concert A */
+        @Param({"100"})
+        public int capacity;
+
+        Deque<Double> boxed;
+        DoubleArrayDeque unboxed;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(SEED);
+            boxed = new ArrayDeque<>();
+            unboxed = new DoubleArrayDeque(capacity);
+            for (int i = 0; i < capacity; i++) {
+                double sample = random.nextDouble() - 0.5;
+                boxed.addLast(sample);
+                unboxed.addLast(sample);
+            }
+        }
+    }
+
+    /** The strings of GuitarHero, plucked once. */
+    @State(Scope.Thread)
+    public static class Strings {
+        GuitarString[] strings;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            strings = new GuitarString[STRINGS];
+            for (int i = 0; i < STRINGS; i++) {
+                strings[i] = new GuitarString(440 * Math.pow(2, (i - 24) / 12.0));
+                strings[i].pluck();
+            }
+        }
+    }
+
+    /** One second of steps on the boxed buffer. */
+    @Benchmark
+    public double ticBoxed(Buffers b) {
+        Deque<Double> buffer = b.boxed;
+        double sample = 0;
+        for (int i = 0; i < SR; i++) {
+            sample = 0.996 * 0.5 * (buffer.get(0) + buffer.get(1));
+            buffer.removeFirst();
+            buffer.addLast(sample);
+        }
+        return sample;
+    }
+
+    /** One second of steps on the unboxed buffer. */
+    @Benchmark
+    public double ticUnboxed(Buffers b) {
+        DoubleArrayDeque buffer = b.unboxed;
+        double sample = 0;
+        for (int i = 0; i < SR; i++) {
+            sample = 0.996 * 0.5 * (buffer.get(0) + buffer.get(1));
+            buffer.removeFirst();
+            buffer.addLast(sample);
+        }
+        return sample;
+    }
+
+    /** One second of GuitarHero's inner loop: sum the samples of every string, then tic them. */
+    @Benchmark
+    public double guitarHeroSecond(Strings s) {
+        double total = 0;
+        for (int i = 0; i < SR; i++) {
+            double sample = 0;
+            for (GuitarString string : s.strings) {
+                sample += string.sample();
+            }
+            for (GuitarString string : s.strings) {
+                string.tic();
+            }
+            total += sample;
+        }
+        return total;
+    }
+}